@@ -0,0 +1,78 @@
+package com.example.actuator.benchmark;
+
+import com.example.actuator.metrics.BoundedTagMeters;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 주문 경로의 카테고리 카운터 증가 비용 비교.
+ *
+ * 실행: ./gradlew :actuator-deep-dive:jmh
+ *   - builderPerCall : 기존 CustomMetrics.recordOrderByCategory (요청마다 Counter.builder().register())
+ *   - bounded        : BoundedTagMeters (등록된 Counter를 Map에서 조회)
+ *   - gc.alloc.rate.norm : 연산 1번당 할당 바이트 (gc 프로파일러)
+ *
+ * 파라미터 distinctCategories:
+ *   5    = 알려진 카테고리만 들어옴 (정상 트래픽)
+ *   5000 = 사용자 입력이 그대로 들어옴 → builderPerCall은 시계열 5000개, bounded는 상한 + "other"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CategoryCounterBenchmark {
+
+    private static final List<String> KNOWN_CATEGORIES = List.of("electronics", "fashion", "food", "books", "general");
+
+    @Param({"5", "5000"})
+    public int distinctCategories;
+
+    private MeterRegistry meterRegistry;
+    private BoundedTagMeters<Counter> boundedCounters;
+    private String[] categories;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        boundedCounters = new BoundedTagMeters<>(50, KNOWN_CATEGORIES,
+                category -> Counter.builder("orders.by.category.bounded")
+                        .tag("category", category)
+                        .register(meterRegistry));
+
+        categories = new String[distinctCategories];
+        for (int i = 0; i < distinctCategories; i++) {
+            categories[i] = i < KNOWN_CATEGORIES.size() ? KNOWN_CATEGORIES.get(i) : "category-" + i;
+        }
+    }
+
+    @Benchmark
+    public void builderPerCall() {
+        Counter.builder("orders.by.category")
+                .description("Orders grouped by category")
+                .tag("category", pickCategory())
+                .register(meterRegistry)
+                .increment();
+    }
+
+    @Benchmark
+    public void bounded() {
+        boundedCounters.get(pickCategory()).increment();
+    }
+
+    private String pickCategory() {
+        return categories[ThreadLocalRandom.current().nextInt(categories.length)];
+    }
+}
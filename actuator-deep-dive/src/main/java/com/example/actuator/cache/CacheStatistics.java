@@ -0,0 +1,24 @@
+package com.example.actuator.cache;
+
+/**
+ * 캐시 1개의 누적 통계 스냅샷 (InstrumentedCache.snapshot()).
+ *
+ * @param size           현재 항목 수 (알 수 없으면 -1)
+ * @param totalLoadNanos loader 실행 시간 합계
+ */
+public record CacheStatistics(String cacheName, long size,
+                              long hitCount, long missCount, long putCount, long evictionCount,
+                              long loadCount, long loadFailureCount, long totalLoadNanos) {
+
+    /**
+     * 적중률 (%). 조회가 없으면 0.
+     */
+    public double hitRate() {
+        long total = hitCount + missCount;
+        return total == 0 ? 0.0 : (double) hitCount / total * 100;
+    }
+
+    public double averageLoadMillis() {
+        return loadCount == 0 ? 0.0 : totalLoadNanos / 1_000_000.0 / loadCount;
+    }
+}
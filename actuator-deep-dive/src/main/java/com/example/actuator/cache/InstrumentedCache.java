@@ -0,0 +1,190 @@
+package com.example.actuator.cache;
+
+import org.springframework.cache.Cache;
+
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 모든 캐시 연산을 계측하는 Cache 데코레이터.
+ *
+ * 카운터는 LongAdder (스레드별 셀에 나눠 더함) → 여러 스레드가 같은 캐시를 조회해도
+ * AtomicLong처럼 한 변수에 CAS 경합이 생기지 않는다. 합계는 조회할 때만 계산.
+ *
+ * - hit/miss     : get(key), get(key, type), get(key, loader)
+ * - load         : get(key, loader)에서 loader가 실제로 실행된 횟수/시간 (실패 포함)
+ * - put          : put, putIfAbsent(저장된 경우)
+ * - eviction     : evict/evictIfPresent/clear로 제거된 항목 (용량/TTL 제거는 native 캐시가 관리)
+ *                  evict는 지연/비동기 제거를 허용하는 계약이라 그대로 delegate.evict에 위임하고,
+ *                  native 캐시가 Map일 때만 사전 containsKey로 센다 (그 외는 추가 왕복을 피하려고 세지 않음)
+ */
+public class InstrumentedCache implements Cache {
+
+    private final Cache delegate;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder puts = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder loadFailures = new LongAdder();
+    private final LongAdder loadNanos = new LongAdder();
+
+    public InstrumentedCache(Cache delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    public Cache getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        ValueWrapper value = delegate.get(key);
+        recordLookup(value != null);
+        return value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        // null 값 캐싱과 Miss를 구분하기 위해 ValueWrapper로 조회
+        ValueWrapper value = delegate.get(key);
+        recordLookup(value != null);
+        if (value == null) {
+            return null;
+        }
+        Object stored = value.get();
+        if (stored != null && type != null && !type.isInstance(stored)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + stored);
+        }
+        return (T) stored;
+    }
+
+    @Override
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        boolean[] loaded = new boolean[1];
+        T value = delegate.get(key, () -> {
+            loaded[0] = true;
+            long start = System.nanoTime();
+            try {
+                return valueLoader.call();
+            } catch (Exception | Error e) {
+                loadFailures.increment();
+                throw e;
+            } finally {
+                loads.increment();
+                loadNanos.add(System.nanoTime() - start);
+            }
+        });
+        recordLookup(!loaded[0]);
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        delegate.put(key, value);
+        puts.increment();
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = delegate.putIfAbsent(key, value);
+        if (existing == null) {
+            puts.increment();
+        }
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        boolean present = delegate.getNativeCache() instanceof Map<?, ?> map && map.containsKey(key);
+        delegate.evict(key);
+        if (present) {
+            evictions.increment();
+        }
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean evicted = delegate.evictIfPresent(key);
+        if (evicted) {
+            evictions.increment();
+        }
+        return evicted;
+    }
+
+    @Override
+    public void clear() {
+        long size = size();
+        delegate.clear();
+        if (size > 0) {
+            evictions.add(size);
+        }
+    }
+
+    @Override
+    public boolean invalidate() {
+        long size = size();
+        boolean invalidated = delegate.invalidate();
+        if (invalidated && size > 0) {
+            evictions.add(size);
+        }
+        return invalidated;
+    }
+
+    /**
+     * 현재 항목 수. native 캐시가 Map(ConcurrentMapCache 등)이 아니면 알 수 없으므로 -1.
+     */
+    public long size() {
+        return delegate.getNativeCache() instanceof Map<?, ?> map ? map.size() : -1;
+    }
+
+    public CacheStatistics snapshot() {
+        return new CacheStatistics(getName(), size(), hits.sum(), misses.sum(), puts.sum(),
+                evictions.sum(), loads.sum(), loadFailures.sum(), loadNanos.sum());
+    }
+
+    long hitCount() {
+        return hits.sum();
+    }
+
+    long missCount() {
+        return misses.sum();
+    }
+
+    long putCount() {
+        return puts.sum();
+    }
+
+    long evictionCount() {
+        return evictions.sum();
+    }
+
+    long loadCount() {
+        return loads.sum();
+    }
+
+    long loadFailureCount() {
+        return loadFailures.sum();
+    }
+
+    long totalLoadNanos() {
+        return loadNanos.sum();
+    }
+
+    private void recordLookup(boolean hit) {
+        (hit ? hits : misses).increment();
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.actuator.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CacheManager가 돌려주는 모든 캐시를 InstrumentedCache로 감싸는 데코레이터.
+ *
+ * 캐시를 처음 감쌀 때 Micrometer 메트릭도 함께 등록한다 (태그: cache=캐시 이름).
+ *   - cache.gets{result=hit|miss}, cache.puts, cache.evictions : FunctionCounter (LongAdder 합계를 읽기만 함)
+ *   - cache.loads{result=success|failure}                      : 로드 횟수
+ *   - cache.load.duration                                      : FunctionTimer (로드 횟수 + 누적 시간)
+ *   - cache.size                                               : Gauge
+ * 조회 경로에서는 LongAdder만 증가시키고, 메트릭 수집 시점에 합계를 읽는다.
+ */
+public class InstrumentedCacheManager implements CacheManager {
+
+    private final CacheManager delegate;
+    private final ObjectProvider<MeterRegistry> meterRegistryProvider;
+
+    private final Map<String, InstrumentedCache> caches = new ConcurrentHashMap<>();
+
+    public InstrumentedCacheManager(CacheManager delegate, ObjectProvider<MeterRegistry> meterRegistryProvider) {
+        this.delegate = delegate;
+        this.meterRegistryProvider = meterRegistryProvider;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        InstrumentedCache cache = caches.get(name);
+        if (cache != null) {
+            return cache;
+        }
+        Cache target = delegate.getCache(name);
+        if (target == null) {
+            return null;
+        }
+        return caches.computeIfAbsent(name, key -> {
+            InstrumentedCache instrumented = new InstrumentedCache(target);
+            meterRegistryProvider.ifAvailable(registry -> bindMetrics(instrumented, registry));
+            return instrumented;
+        });
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return delegate.getCacheNames();
+    }
+
+    public CacheManager getDelegate() {
+        return delegate;
+    }
+
+    /**
+     * 지금까지 한 번이라도 사용된(또는 이름이 정해진) 캐시의 통계.
+     */
+    public List<CacheStatistics> getStatistics() {
+        getCacheNames().forEach(this::getCache);
+        return caches.values().stream()
+                .map(InstrumentedCache::snapshot)
+                .toList();
+    }
+
+    private static void bindMetrics(InstrumentedCache cache, MeterRegistry registry) {
+        String name = cache.getName();
+        FunctionCounter.builder("cache.gets", cache, InstrumentedCache::hitCount)
+                .description("Cache lookups that returned a cached value")
+                .tag("cache", name)
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", cache, InstrumentedCache::missCount)
+                .description("Cache lookups that found no cached value")
+                .tag("cache", name)
+                .tag("result", "miss")
+                .register(registry);
+        FunctionCounter.builder("cache.puts", cache, InstrumentedCache::putCount)
+                .description("Entries added to the cache")
+                .tag("cache", name)
+                .register(registry);
+        FunctionCounter.builder("cache.evictions", cache, InstrumentedCache::evictionCount)
+                .description("Entries explicitly removed from the cache")
+                .tag("cache", name)
+                .register(registry);
+        FunctionCounter.builder("cache.loads", cache, c -> c.loadCount() - c.loadFailureCount())
+                .description("Value loader invocations that succeeded")
+                .tag("cache", name)
+                .tag("result", "success")
+                .register(registry);
+        FunctionCounter.builder("cache.loads", cache, InstrumentedCache::loadFailureCount)
+                .description("Value loader invocations that threw")
+                .tag("cache", name)
+                .tag("result", "failure")
+                .register(registry);
+        FunctionTimer.builder("cache.load.duration", cache,
+                        InstrumentedCache::loadCount, InstrumentedCache::totalLoadNanos, TimeUnit.NANOSECONDS)
+                .description("Time spent in value loaders")
+                .tag("cache", name)
+                .register(registry);
+        Gauge.builder("cache.size", cache, c -> {
+                    long size = c.size();
+                    return size < 0 ? Double.NaN : size;
+                })
+                .description("Number of entries in the cache")
+                .tag("cache", name)
+                .register(registry);
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.actuator.config;
+
+import com.example.actuator.cache.InstrumentedCacheManager;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 캐시 계측 설정
+ *
+ * 모든 CacheManager 빈을 InstrumentedCacheManager로 감싸서
+ * /actuator/cache-stats와 cache.* 메트릭이 실제 캐시 사용량을 보여주도록 합니다.
+ *
+ * 주의: 감싼 뒤의 빈 타입은 InstrumentedCacheManager이므로,
+ * 구체 타입(ConcurrentMapCacheManager 등)으로 주입받는 코드는 getDelegate()를 사용해야 합니다.
+ */
+@Configuration
+@EnableCaching
+public class CacheInstrumentationConfig {
+
+    /**
+     * BeanPostProcessor는 다른 빈보다 먼저 생성되므로 static으로 선언하고,
+     * MeterRegistry는 캐시를 처음 사용할 때 ObjectProvider로 꺼냅니다.
+     */
+    @Bean
+    public static BeanPostProcessor cacheManagerInstrumenter(ObjectProvider<MeterRegistry> meterRegistryProvider) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof CacheManager cacheManager && !(bean instanceof InstrumentedCacheManager)) {
+                    return new InstrumentedCacheManager(cacheManager, meterRegistryProvider);
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.actuator.config;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 메트릭 분포 통계 설정
+ *
+ * management.metrics.distribution.percentiles.all 은 Timer뿐 아니라 DistributionSummary,
+ * LongTaskTimer 등 모든 분포 메트릭에 백분위수용 HDR 히스토그램(감쇠 윈도우 링 버퍼)을 붙입니다.
+ * → 메트릭/태그 조합마다 메모리와 기록 비용이 늘어나므로, 클라이언트 측 백분위수는 Timer에만 켭니다.
+ */
+@Configuration
+public class MetricsConfig {
+
+    /** /actuator/latency-report가 보여주는 백분위수 */
+    private static final double[] TIMER_PERCENTILES = {0.5, 0.9, 0.99, 0.999};
+
+    /**
+     * Timer에만 기본 백분위수를 적용합니다.
+     * 설정 파일(percentiles.{이름})로 지정한 메트릭은 그 값을 그대로 사용합니다.
+     * (순서 미지정 → 설정 파일을 반영하는 PropertiesMeterFilter 다음에 적용됨)
+     */
+    @Bean
+    public MeterFilter timerPercentilesMeterFilter() {
+        return new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                if (id.getType() != Meter.Type.TIMER) {
+                    return config;
+                }
+                double[] configured = config.getPercentiles();
+                if (configured != null && configured.length > 0) {
+                    return config;
+                }
+                return DistributionStatisticConfig.builder()
+                        .percentiles(TIMER_PERCENTILES)
+                        .build()
+                        .merge(config);
+            }
+        };
+    }
+}
@@ -1,26 +1,36 @@
 package com.example.actuator.endpoint;
 
+import com.example.actuator.cache.CacheStatistics;
+import com.example.actuator.cache.InstrumentedCacheManager;
 import lombok.Data;
 import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
 import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
 import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.cache.CacheManager;
 import org.springframework.stereotype.Component;
 
-import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Random;
+import java.util.TreeMap;
 
 /**
  * 캐시 통계를 조회하는 커스텀 엔드포인트
  *
  * @Selector를 사용하면 /actuator/cache-stats/{cacheName} 형태로
  * 동적 경로를 처리할 수 있습니다.
+ *
+ * 통계는 InstrumentedCacheManager가 감싼 캐시의 실제 누적값입니다.
+ * (같은 값이 cache.gets, cache.puts 등 Micrometer 메트릭으로도 노출됨)
  */
 @Component
 @Endpoint(id = "cache-stats")
 public class CacheStatsEndpoint {
 
-    private final Random random = new Random();
+    private final List<CacheManager> cacheManagers;
+
+    public CacheStatsEndpoint(List<CacheManager> cacheManagers) {
+        this.cacheManagers = cacheManagers;
+    }
 
     /**
      * GET /actuator/cache-stats
@@ -28,46 +38,60 @@ public class CacheStatsEndpoint {
      */
     @ReadOperation
     public Map<String, CacheStats> getAllCacheStats() {
-        Map<String, CacheStats> stats = new HashMap<>();
-        stats.put("products", generateCacheStats("products"));
-        stats.put("users", generateCacheStats("users"));
-        stats.put("orders", generateCacheStats("orders"));
+        Map<String, CacheStats> stats = new TreeMap<>();
+        for (CacheStatistics statistics : collect()) {
+            stats.put(statistics.cacheName(), CacheStats.from(statistics));
+        }
         return stats;
     }
 
     /**
      * GET /actuator/cache-stats/{cacheName}
-     * 특정 캐시 통계 조회
+     * 특정 캐시 통계 조회 (없는 캐시면 404)
      */
     @ReadOperation
     public CacheStats getCacheStats(@Selector String cacheName) {
-        return generateCacheStats(cacheName);
+        return collect().stream()
+                .filter(statistics -> statistics.cacheName().equals(cacheName))
+                .findFirst()
+                .map(CacheStats::from)
+                .orElse(null);
     }
 
-    private CacheStats generateCacheStats(String cacheName) {
-        CacheStats stats = new CacheStats();
-        stats.setCacheName(cacheName);
-        stats.setSize(random.nextInt(1000));
-        stats.setHitCount(random.nextInt(10000));
-        stats.setMissCount(random.nextInt(1000));
-        stats.setHitRate(calculateHitRate(stats.getHitCount(), stats.getMissCount()));
-        stats.setEvictionCount(random.nextInt(100));
-        return stats;
-    }
-
-    private double calculateHitRate(int hits, int misses) {
-        int total = hits + misses;
-        if (total == 0) return 0.0;
-        return (double) hits / total * 100;
+    private List<CacheStatistics> collect() {
+        return cacheManagers.stream()
+                .filter(InstrumentedCacheManager.class::isInstance)
+                .map(InstrumentedCacheManager.class::cast)
+                .flatMap(cacheManager -> cacheManager.getStatistics().stream())
+                .toList();
     }
 
     @Data
     public static class CacheStats {
         private String cacheName;
-        private int size;
-        private int hitCount;
-        private int missCount;
+        private long size;
+        private long hitCount;
+        private long missCount;
         private double hitRate;
-        private int evictionCount;
+        private long putCount;
+        private long evictionCount;
+        private long loadCount;
+        private long loadFailureCount;
+        private double averageLoadTimeMillis;
+
+        static CacheStats from(CacheStatistics statistics) {
+            CacheStats stats = new CacheStats();
+            stats.setCacheName(statistics.cacheName());
+            stats.setSize(statistics.size());
+            stats.setHitCount(statistics.hitCount());
+            stats.setMissCount(statistics.missCount());
+            stats.setHitRate(statistics.hitRate());
+            stats.setPutCount(statistics.putCount());
+            stats.setEvictionCount(statistics.evictionCount());
+            stats.setLoadCount(statistics.loadCount());
+            stats.setLoadFailureCount(statistics.loadFailureCount());
+            stats.setAverageLoadTimeMillis(statistics.averageLoadMillis());
+            return stats;
+        }
     }
 }
@@ -0,0 +1,105 @@
+package com.example.actuator.endpoint;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 애플리케이션의 모든 Timer 지연 시간 요약 엔드포인트
+ *
+ * GET /actuator/latency-report              : 전체 Timer (이름별, 태그 조합별)
+ * GET /actuator/latency-report/{meterName}  : 특정 Timer
+ *
+ * p50/p90/p99/p999는 Micrometer 클라이언트 측 백분위수(감쇠 윈도우 HDR 히스토그램)입니다.
+ *   - Timer 기본값은 MetricsConfig, 이름별 값은 management.metrics.distribution.percentiles.* 로 설정
+ *   - 최근 expiry(기본 2분) 구간 기준, 설정하지 않은 백분위수는 null
+ * count/mean은 누적값, max는 감쇠 윈도우 기준입니다.
+ */
+@Component
+@Endpoint(id = "latency-report")
+@RequiredArgsConstructor
+public class LatencyReportEndpoint {
+
+    private static final double[] REPORTED_PERCENTILES = {0.5, 0.9, 0.99, 0.999};
+
+    private final MeterRegistry meterRegistry;
+
+    @ReadOperation
+    public Map<String, List<TimerLatency>> getLatencyReport() {
+        Map<String, List<TimerLatency>> report = new TreeMap<>();
+        for (Meter meter : meterRegistry.getMeters()) {
+            if (meter instanceof Timer timer) {
+                report.computeIfAbsent(timer.getId().getName(), name -> new ArrayList<>())
+                        .add(TimerLatency.from(timer));
+            }
+        }
+        return report;
+    }
+
+    /**
+     * 없는 Timer면 404
+     */
+    @ReadOperation
+    public List<TimerLatency> getTimerLatency(@Selector String meterName) {
+        List<TimerLatency> latencies = meterRegistry.find(meterName).timers().stream()
+                .map(TimerLatency::from)
+                .toList();
+        return latencies.isEmpty() ? null : latencies;
+    }
+
+    @Data
+    public static class TimerLatency {
+        private Map<String, String> tags;
+        private long count;
+        private double meanMs;
+        private double maxMs;
+        private Double p50Ms;
+        private Double p90Ms;
+        private Double p99Ms;
+        private Double p999Ms;
+
+        static TimerLatency from(Timer timer) {
+            HistogramSnapshot snapshot = timer.takeSnapshot();
+            TimerLatency latency = new TimerLatency();
+
+            Map<String, String> tags = new LinkedHashMap<>();
+            for (Tag tag : timer.getId().getTagsAsIterable()) {
+                tags.put(tag.getKey(), tag.getValue());
+            }
+            latency.setTags(tags);
+            latency.setCount(snapshot.count());
+            latency.setMeanMs(snapshot.mean(TimeUnit.MILLISECONDS));
+            latency.setMaxMs(snapshot.max(TimeUnit.MILLISECONDS));
+            latency.setP50Ms(percentile(snapshot, REPORTED_PERCENTILES[0]));
+            latency.setP90Ms(percentile(snapshot, REPORTED_PERCENTILES[1]));
+            latency.setP99Ms(percentile(snapshot, REPORTED_PERCENTILES[2]));
+            latency.setP999Ms(percentile(snapshot, REPORTED_PERCENTILES[3]));
+            return latency;
+        }
+
+        private static Double percentile(HistogramSnapshot snapshot, double percentile) {
+            for (ValueAtPercentile value : snapshot.percentileValues()) {
+                if (Math.abs(value.percentile() - percentile) < 1e-9) {
+                    return value.value(TimeUnit.MILLISECONDS);
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.actuator.endpoint;
+
+import com.example.actuator.profiling.JfrProfiler;
+import com.example.actuator.profiling.JfrProfiler.RecordingInfo;
+import com.example.actuator.profiling.ProfileSummary;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * JDK Flight Recorder 프로파일링 엔드포인트
+ *
+ * 운영 중 지연 시간이 튈 때 외부 도구를 붙이지 않고 CPU/할당/락 경합을 녹화합니다.
+ *
+ * POST   /actuator/profiling                     : 녹화 시작 {"template":"profile","durationSeconds":60}
+ * DELETE /actuator/profiling                     : 녹화 중지 (duration 전에 멈출 때)
+ * GET    /actuator/profiling                     : 실행 중 / 완료된 녹화 목록
+ * GET    /actuator/profiling/{id}                : .jfr 파일 다운로드 (JDK Mission Control로 분석)
+ * GET    /actuator/profiling/{id}/summary        : 핫 메서드 / 할당 위치 / 락 경합 상위 N개
+ */
+@Component
+@Endpoint(id = "profiling")
+@RequiredArgsConstructor
+public class ProfilingEndpoint {
+
+    private static final String SUMMARY = "summary";
+
+    private final JfrProfiler profiler;
+
+    @ReadOperation
+    public ProfilingStatus getStatus() {
+        ProfilingStatus status = new ProfilingStatus();
+        status.setActive(profiler.getActive().orElse(null));
+        status.setCompleted(profiler.getCompleted());
+        return status;
+    }
+
+    /**
+     * 이미 녹화 중이거나 템플릿 이름이 잘못되면 400
+     */
+    @WriteOperation
+    public RecordingInfo startRecording(@Nullable String template, @Nullable Long durationSeconds) {
+        if (durationSeconds != null && durationSeconds <= 0) {
+            throw new InvalidEndpointRequestException("durationSeconds must be positive", "Invalid duration");
+        }
+        try {
+            return profiler.start(template, durationSeconds == null ? null : Duration.ofSeconds(durationSeconds));
+        } catch (IllegalStateException | IllegalArgumentException e) {
+            throw new InvalidEndpointRequestException(e.getMessage(), e.getMessage());
+        }
+    }
+
+    /**
+     * 실행 중인 녹화가 없으면 404
+     */
+    @DeleteOperation
+    public RecordingInfo stopRecording() {
+        return profiler.stop().orElse(null);
+    }
+
+    /**
+     * 완료된 녹화 파일 (없거나 아직 녹화 중이면 404)
+     */
+    @ReadOperation(produces = "application/octet-stream")
+    public Resource downloadRecording(@Selector long recordingId) {
+        return profiler.getFile(recordingId)
+                .map(FileSystemResource::new)
+                .orElse(null);
+    }
+
+    @ReadOperation
+    public ProfileSummary getSummary(@Selector long recordingId, @Selector String view) {
+        if (!SUMMARY.equals(view)) {
+            return null;
+        }
+        return profiler.getSummary(recordingId).orElse(null);
+    }
+
+    @Data
+    public static class ProfilingStatus {
+        private RecordingInfo active;
+        private List<RecordingInfo> completed;
+    }
+}
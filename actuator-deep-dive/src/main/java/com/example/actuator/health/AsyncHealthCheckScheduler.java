@@ -0,0 +1,71 @@
+package com.example.actuator.health;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * AsyncHealthIndicator들을 주기적으로 실행하는 스케줄러
+ *
+ * - 스케줄 스레드(1개): interval마다 체크를 워커에 넘기기만 함 (체크가 멈춰도 다른 인디케이터 주기에 영향 없음)
+ * - 워커 스레드(health.async.workers개): 실제 check() 실행
+ * 시작하자마자 한 번씩 실행해서 첫 결과를 채웁니다.
+ */
+@Slf4j
+@Component
+public class AsyncHealthCheckScheduler {
+
+    private final List<AsyncHealthIndicator> indicators;
+    private final ScheduledExecutorService scheduler;
+    private final ExecutorService workers;
+
+    public AsyncHealthCheckScheduler(List<AsyncHealthIndicator> indicators,
+                                     @Value("${health.async.workers:4}") int workerCount) {
+        this.indicators = indicators;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(daemonThreads("health-scheduler-"));
+        this.workers = Executors.newFixedThreadPool(workerCount, daemonThreads("health-check-"));
+    }
+
+    @PostConstruct
+    void start() {
+        for (AsyncHealthIndicator indicator : indicators) {
+            long intervalMillis = indicator.getInterval().toMillis();
+            scheduler.scheduleWithFixedDelay(() -> refresh(indicator), 0, intervalMillis, TimeUnit.MILLISECONDS);
+            log.info("Scheduled health check '{}' every {}ms", indicator.getName(), intervalMillis);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    private void refresh(AsyncHealthIndicator indicator) {
+        try {
+            indicator.refresh(workers);
+        } catch (RuntimeException e) {
+            // 예외가 밖으로 나가면 ScheduledExecutorService가 이후 실행을 중단함
+            log.error("Failed to schedule health check '{}'", indicator.getName(), e);
+        }
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger sequence = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.actuator.health;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.Status;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 비동기 + 캐시 헬스 인디케이터 베이스 클래스
+ *
+ * 일반 HealthIndicator는 /actuator/health 요청마다 체크를 실행합니다.
+ * Kubernetes probe가 자주 호출하면 DB/외부 API 부하가 probe 횟수만큼 늘고,
+ * 체크가 멈추면 probe 요청 스레드도 같이 멈춥니다.
+ *
+ * 이 클래스는
+ * 1. AsyncHealthCheckScheduler가 interval마다 백그라운드에서 check() 실행
+ * 2. timeout 안에 끝나지 않으면 DOWN("timeout")으로 기록 (같은 체크가 끝나기 전에는 다시 실행하지 않음)
+ * 3. health()는 마지막 결과를 즉시 반환 + checkedAt / stalenessMs / checkDurationMs 상세 정보
+ * 4. 마지막 결과가 maxStaleness보다 오래되면 DOWN (스케줄러가 멈춘 상태에서 오래된 UP을 믿지 않음)
+ *    UNKNOWN은 기본 StatusAggregator 순서에서 UP보다 낮아 전체 상태가 UP으로 남으므로 쓰지 않음
+ */
+@Slf4j
+public abstract class AsyncHealthIndicator implements HealthIndicator {
+
+    private final String name;
+    private final Duration interval;
+    private final Duration timeout;
+    private final Duration maxStaleness;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile CheckResult lastResult;
+
+    protected AsyncHealthIndicator(String name, Duration interval, Duration timeout, Duration maxStaleness) {
+        this.name = name;
+        this.interval = interval;
+        this.timeout = timeout;
+        this.maxStaleness = maxStaleness;
+    }
+
+    /**
+     * 실제 상태 체크 (백그라운드 스레드에서 실행). 예외는 DOWN으로 기록됩니다.
+     */
+    protected abstract Health check() throws Exception;
+
+    @Override
+    public Health health() {
+        CheckResult result = lastResult;
+        if (result == null) {
+            return Health.unknown()
+                    .withDetail("reason", "First health check has not completed yet")
+                    .build();
+        }
+
+        long stalenessMs = Duration.between(result.checkedAt(), Instant.now()).toMillis();
+        boolean stale = stalenessMs > maxStaleness.toMillis();
+        Health.Builder builder = Health.status(stale ? Status.DOWN : result.health().getStatus())
+                .withDetails(result.health().getDetails());
+        if (stale) {
+            builder.withDetail("reason", "Last health check is older than " + maxStaleness.toMillis() + "ms")
+                    .withDetail("lastStatus", result.health().getStatus().getCode());
+        }
+        return builder
+                .withDetail("checkedAt", result.checkedAt().toString())
+                .withDetail("stalenessMs", stalenessMs)
+                .withDetail("checkDurationMs", result.durationMs())
+                .withDetail("stale", stale)
+                .build();
+    }
+
+    /**
+     * 백그라운드 체크 1회 실행 (AsyncHealthCheckScheduler가 interval마다 호출).
+     * 이전 체크가 아직 끝나지 않았으면 건너뜀 → 멈춘 체크 때문에 스레드가 쌓이지 않음
+     */
+    public void refresh(Executor executor) {
+        if (!running.compareAndSet(false, true)) {
+            log.warn("Health check '{}' is still running, skipping this round", name);
+            return;
+        }
+        long start = System.nanoTime();
+        CompletableFuture<Health> task = CompletableFuture.supplyAsync(this::safeCheck, executor);
+        task.whenComplete((health, error) -> running.set(false));
+
+        // copy()에 타임아웃을 걸어야 원래 작업(task)은 끝날 때까지 running 상태로 남음
+        // 타임아웃 뒤에 늦게 끝난 결과는 버리고 다음 주기 결과를 사용
+        task.copy()
+                .orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS)
+                .whenComplete((health, error) -> {
+                    long durationMs = (System.nanoTime() - start) / 1_000_000;
+                    if (error instanceof TimeoutException) {
+                        log.warn("Health check '{}' timed out after {}ms", name, timeout.toMillis());
+                        health = Health.down()
+                                .withDetail("error", "Health check timed out after " + timeout.toMillis() + "ms")
+                                .build();
+                    } else if (error != null) {
+                        health = Health.down(error).build();
+                    }
+                    lastResult = new CheckResult(health, Instant.now(), durationMs);
+                });
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Duration getInterval() {
+        return interval;
+    }
+
+    private Health safeCheck() {
+        try {
+            return check();
+        } catch (Exception e) {
+            log.error("Health check '{}' failed", name, e);
+            return Health.down(e).build();
+        }
+    }
+
+    private record CheckResult(Health health, Instant checkedAt, long durationMs) {
+    }
+}
@@ -1,47 +1,50 @@
 package com.example.actuator.health;
 
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.actuate.health.Health;
-import org.springframework.boot.actuate.health.HealthIndicator;
 import org.springframework.stereotype.Component;
 
 import javax.sql.DataSource;
 import java.sql.Connection;
 import java.sql.Statement;
+import java.time.Duration;
 
 /**
  * 데이터베이스 연결 상태를 체크하는 헬스 인디케이터
  *
  * Spring Boot는 기본적으로 DataSourceHealthIndicator를 제공하지만,
  * 커스텀 쿼리나 추가 로직이 필요한 경우 직접 구현할 수 있습니다.
+ *
+ * AsyncHealthIndicator를 상속하므로 /actuator/health 요청마다 커넥션을 열지 않고,
+ * 백그라운드에서 주기적으로 체크한 마지막 결과를 반환합니다.
  */
 @Slf4j
 @Component
-@RequiredArgsConstructor
-public class DatabaseHealthIndicator implements HealthIndicator {
+public class DatabaseHealthIndicator extends AsyncHealthIndicator {
 
     private final DataSource dataSource;
-
-    @Override
-    public Health health() {
-        try {
-            return checkDatabaseConnection();
-        } catch (Exception e) {
-            log.error("Database health check failed", e);
-            return Health.down()
-                    .withDetail("error", e.getMessage())
-                    .withException(e)
-                    .build();
-        }
+    private final Duration timeout;
+
+    public DatabaseHealthIndicator(DataSource dataSource,
+                                   @Value("${health.async.database.interval:10s}") Duration interval,
+                                   @Value("${health.async.database.timeout:2s}") Duration timeout,
+                                   @Value("${health.async.database.max-staleness:60s}") Duration maxStaleness) {
+        super("database", interval, timeout, maxStaleness);
+        this.dataSource = dataSource;
+        this.timeout = timeout;
     }
 
-    private Health checkDatabaseConnection() throws Exception {
+    @Override
+    protected Health check() throws Exception {
         long startTime = System.currentTimeMillis();
 
         try (Connection connection = dataSource.getConnection();
              Statement statement = connection.createStatement()) {
 
+            // 드라이버 수준 타임아웃도 걸어서 워커 스레드가 무한정 묶이지 않도록 함
+            statement.setQueryTimeout((int) Math.max(1, timeout.toSeconds()));
+
             // 간단한 쿼리로 DB 연결 확인
             statement.execute("SELECT 1");
 
@@ -1,25 +1,42 @@
 package com.example.actuator.health;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.actuate.health.Health;
-import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestTemplate;
 
+import java.time.Duration;
+
 /**
  * 외부 API 연동 상태를 체크하는 헬스 인디케이터
  *
  * 실무에서는 결제 게이트웨이, SMS 발송 API, 외부 파트너 API 등의
  * 연결 상태를 주기적으로 체크합니다.
+ *
+ * AsyncHealthIndicator를 상속하므로 외부 API가 느려져도 probe 요청은 바로 응답합니다.
  */
 @Slf4j
 @Component
-public class ExternalApiHealthIndicator implements HealthIndicator {
+public class ExternalApiHealthIndicator extends AsyncHealthIndicator {
 
-    private final RestTemplate restTemplate = new RestTemplate();
+    private final RestTemplate restTemplate;
+
+    public ExternalApiHealthIndicator(RestTemplateBuilder restTemplateBuilder,
+                                      @Value("${health.async.external-api.interval:30s}") Duration interval,
+                                      @Value("${health.async.external-api.timeout:3s}") Duration timeout,
+                                      @Value("${health.async.external-api.max-staleness:120s}") Duration maxStaleness) {
+        super("externalApi", interval, timeout, maxStaleness);
+        // HTTP 클라이언트 타임아웃도 체크 타임아웃에 맞춤 (워커 스레드가 무한정 묶이지 않도록)
+        this.restTemplate = restTemplateBuilder
+                .connectTimeout(timeout)
+                .readTimeout(timeout)
+                .build();
+    }
 
     @Override
-    public Health health() {
+    protected Health check() {
         try {
             return checkExternalApi();
         } catch (Exception e) {
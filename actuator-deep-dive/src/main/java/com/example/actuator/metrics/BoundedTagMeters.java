@@ -0,0 +1,72 @@
+package com.example.actuator.metrics;
+
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * 태그 값별 Meter 캐시 (카디널리티 상한 포함).
+ *
+ * Counter.builder(...).tag("category", category).register(registry)를 요청마다 호출하면
+ *   1. 매번 Builder/Tags/Meter.Id 할당 + 레지스트리 조회 (이미 등록된 Meter여도)
+ *   2. 사용자 입력이 그대로 태그 값 → 값 종류만큼 시계열이 생겨 Prometheus 메모리 폭발
+ *
+ * 이 클래스는
+ *   - 허용 값(preRegistered)은 시작 시점에 미리 등록
+ *   - 그 밖의 값은 maxValues개까지만 새로 등록, 초과분은 전부 "other" Meter 하나로 합침
+ *   - 한 번 등록된 값은 ConcurrentHashMap 조회 1번 (할당 없음)
+ *
+ * @param <M> Counter, Timer, DistributionSummary 등
+ */
+public class BoundedTagMeters<M> {
+
+    public static final String OTHER = "other";
+    public static final String UNKNOWN = "unknown";
+
+    private final int maxValues;
+    private final Function<String, M> meterFactory;
+    private final Map<String, M> meters = new ConcurrentHashMap<>();
+    private final M overflow;
+
+    /**
+     * @param maxValues     태그 값 종류 상한 (미리 등록한 값 포함, "other" 제외)
+     * @param preRegistered 시작 시점에 등록할 태그 값 (예: 알려진 카테고리)
+     * @param meterFactory  태그 값 → Meter 등록 (값마다 1번만 호출됨)
+     */
+    public BoundedTagMeters(int maxValues, Collection<String> preRegistered, Function<String, M> meterFactory) {
+        this.maxValues = maxValues;
+        this.meterFactory = meterFactory;
+        this.overflow = meterFactory.apply(OTHER);
+        preRegistered.forEach(value -> meters.computeIfAbsent(normalize(value), meterFactory));
+    }
+
+    public M get(String tagValue) {
+        String value = normalize(tagValue);
+        M meter = meters.get(value);
+        if (meter != null) {
+            return meter;
+        }
+        if (OTHER.equals(value) || meters.size() >= maxValues) {
+            return overflow;
+        }
+        // 상한 직전에 여러 스레드가 동시에 들어오면 maxValues를 약간 넘을 수 있음 (정확한 상한보다 락 없는 경로를 우선)
+        return meters.computeIfAbsent(value, meterFactory);
+    }
+
+    /**
+     * "other"를 제외한 현재 등록된 태그 값 수.
+     */
+    public int size() {
+        return meters.size();
+    }
+
+    private static String normalize(String tagValue) {
+        if (tagValue == null || tagValue.isBlank()) {
+            return UNKNOWN;
+        }
+        // 기본 로케일(예: tr의 I → ı)에 따라 같은 값이 다른 태그로 갈리지 않도록 ROOT 고정
+        return tagValue.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -1,11 +1,14 @@
 package com.example.actuator.metrics;
 
 import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
@@ -21,11 +24,13 @@ public class CustomMetrics {
     private final Counter orderCounter;
     private final Counter orderFailureCounter;
     private final Timer orderProcessingTimer;
+    private final DistributionSummary orderAmountSummary;
     private final AtomicInteger activeOrders;
-    private final MeterRegistry meterRegistry;
+    private final BoundedTagMeters<Counter> categoryCounters;
 
-    public CustomMetrics(MeterRegistry meterRegistry) {
-        this.meterRegistry = meterRegistry;
+    public CustomMetrics(MeterRegistry meterRegistry,
+                         @Value("${metrics.orders.categories:electronics,fashion,food,books,general}") List<String> categories,
+                         @Value("${metrics.orders.max-categories:50}") int maxCategories) {
 
         // 1. Counter: 누적 값만 증가 (주문 수, 에러 수 등)
         this.orderCounter = Counter.builder("orders.created")
@@ -39,15 +44,28 @@ public class CustomMetrics {
                 .register(meterRegistry);
 
         // 2. Timer: 이벤트의 빈도와 소요 시간 측정 (API 응답 시간 등)
+        // 히스토그램/백분위수/SLO는 코드가 아닌 management.metrics.distribution.*.<메트릭 이름>으로 설정
         this.orderProcessingTimer = Timer.builder("orders.processing.time")
                 .description("Time taken to process an order")
                 .register(meterRegistry);
 
+        // 분포 측정: 요청마다 meterRegistry.summary()로 조회하지 않도록 미리 등록
+        this.orderAmountSummary = DistributionSummary.builder("orders.amount")
+                .description("Order amount distribution")
+                .register(meterRegistry);
+
         // 3. Gauge: 현재 상태 값 (활성 커넥션 수, 큐 크기 등)
         this.activeOrders = meterRegistry.gauge(
                 "orders.active",
                 new AtomicInteger(0)
         );
+
+        // 4. 동적 태그: 태그 값별 Counter를 미리 등록/캐시, 종류가 maxCategories를 넘으면 "other"로 합침
+        this.categoryCounters = new BoundedTagMeters<>(maxCategories, categories,
+                category -> Counter.builder("orders.by.category")
+                        .description("Orders grouped by category")
+                        .tag("category", category)
+                        .register(meterRegistry));
     }
 
     /**
@@ -86,13 +104,12 @@ public class CustomMetrics {
     /**
      * 태그를 사용한 세분화된 메트릭
      * 예: 상품 카테고리별, 결제 수단별 주문 수
+     *
+     * 카테고리는 요청 값이라 종류가 무한할 수 있음 → BoundedTagMeters로 시계열 수 제한
+     * (요청마다 Counter.builder().register()를 호출하지 않음)
      */
     public void recordOrderByCategory(String category) {
-        Counter.builder("orders.by.category")
-                .description("Orders grouped by category")
-                .tag("category", category)
-                .register(meterRegistry)
-                .increment();
+        categoryCounters.get(category).increment();
     }
 
     /**
@@ -100,7 +117,6 @@ public class CustomMetrics {
      * 예: 주문 금액의 분포를 히스토그램으로 기록
      */
     public void recordOrderAmount(double amount) {
-        meterRegistry.summary("orders.amount")
-                .record(amount);
+        orderAmountSummary.record(amount);
     }
 }
@@ -0,0 +1,223 @@
+package com.example.actuator.profiling;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * JDK Flight Recorder 녹화 관리 (에이전트 없이 JDK 내장 기능만 사용)
+ *
+ * - 한 번에 녹화 1개만 실행 (JFR 자체는 여러 개 가능하지만 운영 중 오버헤드를 예측 가능하게 유지)
+ * - 템플릿: "default"(오버헤드 ~1%, 상시 실행 가능) / "profile"(더 자세한 샘플링, 문제 분석용)
+ * - duration이 지나면 JFR이 스스로 멈추고 파일을 씀, 지정하지 않아도 maxDuration에서 멈춤
+ * - 완료된 녹화 파일은 최근 maxRecordings개만 보관 (오래된 파일은 삭제)
+ */
+@Slf4j
+@Component
+public class JfrProfiler {
+
+    private final Duration maxDuration;
+    private final int maxRecordings;
+    private final int summaryTopN;
+    private final Path directory;
+
+    private Recording active;
+    private String activeTemplate;
+    // 완료된 녹화 (ID → 정보), 오래된 순
+    private final Map<Long, RecordingInfo> completed = new LinkedHashMap<>();
+    private final Map<Long, ProfileSummary> summaries = new LinkedHashMap<>();
+
+    public JfrProfiler(@Value("${profiling.max-duration:10m}") Duration maxDuration,
+                       @Value("${profiling.max-recordings:5}") int maxRecordings,
+                       @Value("${profiling.summary-top:10}") int summaryTopN) throws IOException {
+        this.maxDuration = maxDuration;
+        this.maxRecordings = maxRecordings;
+        this.summaryTopN = summaryTopN;
+        this.directory = Files.createTempDirectory("jfr-profiling");
+    }
+
+    /**
+     * 녹화 시작.
+     *
+     * @param template JFR 설정 이름 ("default", "profile"), null이면 "profile"
+     * @param duration 녹화 시간, null이면 maxDuration (그 전에 stop()으로 멈출 수 있음)
+     */
+    public synchronized RecordingInfo start(String template, Duration duration) {
+        collectFinished();
+        if (active != null) {
+            throw new IllegalStateException("Recording " + active.getId() + " is already running");
+        }
+        String templateName = template == null || template.isBlank() ? "profile" : template;
+        Configuration configuration;
+        try {
+            configuration = Configuration.getConfiguration(templateName);
+        } catch (IOException | ParseException e) {
+            throw new IllegalArgumentException("Unknown JFR template: " + templateName, e);
+        }
+
+        Duration effective = duration == null || duration.compareTo(maxDuration) > 0 ? maxDuration : duration;
+        Recording recording = new Recording(configuration);
+        recording.setName("actuator-profiling");
+        recording.setToDisk(true);
+        recording.setDuration(effective);
+        try {
+            recording.setDestination(directory.resolve("recording-" + recording.getId() + ".jfr"));
+        } catch (IOException e) {
+            recording.close();
+            throw new UncheckedIOException(e);
+        }
+        recording.start();
+
+        active = recording;
+        activeTemplate = templateName;
+        log.info("JFR recording {} started - template: {}, duration: {}", recording.getId(), templateName, effective);
+        return RecordingInfo.of(recording, templateName);
+    }
+
+    /**
+     * 실행 중인 녹화를 멈추고 파일로 저장. 실행 중인 녹화가 없으면 empty.
+     */
+    public synchronized Optional<RecordingInfo> stop() {
+        collectFinished();
+        if (active == null) {
+            return Optional.empty();
+        }
+        Recording recording = active;
+        recording.stop(); // destination에 파일 기록
+        return Optional.of(complete(recording));
+    }
+
+    public synchronized Optional<RecordingInfo> getActive() {
+        collectFinished();
+        return Optional.ofNullable(active).map(recording -> RecordingInfo.of(recording, activeTemplate));
+    }
+
+    public synchronized List<RecordingInfo> getCompleted() {
+        collectFinished();
+        List<RecordingInfo> recordings = new ArrayList<>(completed.values());
+        recordings.sort(Comparator.comparing(RecordingInfo::startTime).reversed());
+        return recordings;
+    }
+
+    /**
+     * 완료된 녹화 파일 경로 (없으면 empty)
+     */
+    public synchronized Optional<Path> getFile(long recordingId) {
+        collectFinished();
+        return Optional.ofNullable(completed.get(recordingId))
+                .map(info -> Path.of(info.file()))
+                .filter(Files::exists);
+    }
+
+    /**
+     * 완료된 녹화의 요약 (처음 요청 시 파일을 파싱하고 결과를 보관)
+     *
+     * 파싱은 수백 MB 파일을 순회할 수 있으므로 락 밖에서 수행 (그동안 start/stop/status가 막히지 않도록).
+     * 동시에 같은 녹화를 요청하면 둘 다 파싱할 수 있지만 결과는 같고, 먼저 저장된 것을 사용.
+     */
+    public Optional<ProfileSummary> getSummary(long recordingId) {
+        Path file;
+        synchronized (this) {
+            Optional<Path> found = getFile(recordingId);
+            if (found.isEmpty()) {
+                return Optional.empty();
+            }
+            ProfileSummary cached = summaries.get(recordingId);
+            if (cached != null) {
+                return Optional.of(cached);
+            }
+            file = found.get();
+        }
+
+        ProfileSummary summary;
+        try {
+            summary = JfrSummaryParser.parse(recordingId, file, summaryTopN);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        synchronized (this) {
+            // 파싱 중에 오래된 녹화로 밀려 삭제됐다면 보관하지 않음
+            if (!completed.containsKey(recordingId)) {
+                return Optional.of(summary);
+            }
+            return Optional.of(summaries.computeIfAbsent(recordingId, id -> summary));
+        }
+    }
+
+    @PreDestroy
+    synchronized void shutdown() {
+        if (active != null) {
+            active.close();
+            active = null;
+        }
+    }
+
+    // duration이 지나 JFR이 스스로 멈춘 녹화를 완료 목록으로 옮김
+    private void collectFinished() {
+        if (active != null && active.getState() == RecordingState.STOPPED) {
+            complete(active);
+        }
+    }
+
+    private RecordingInfo complete(Recording recording) {
+        RecordingInfo info = RecordingInfo.of(recording, activeTemplate);
+        recording.close();
+        active = null;
+        activeTemplate = null;
+        completed.put(info.id(), info);
+        log.info("JFR recording {} completed - file: {}, size: {} bytes", info.id(), info.file(), info.sizeBytes());
+
+        while (completed.size() > maxRecordings) {
+            Long oldest = completed.keySet().iterator().next();
+            RecordingInfo removed = completed.remove(oldest);
+            summaries.remove(oldest);
+            try {
+                Files.deleteIfExists(Path.of(removed.file()));
+            } catch (IOException e) {
+                log.warn("Failed to delete old JFR recording: {}", removed.file(), e);
+            }
+        }
+        return info;
+    }
+
+    /**
+     * @param state NEW / RUNNING / STOPPED / CLOSED
+     */
+    public record RecordingInfo(long id, String template, String state, Instant startTime,
+                                Duration duration, String file, long sizeBytes) {
+
+        static RecordingInfo of(Recording recording, String template) {
+            Path destination = recording.getDestination();
+            long size = 0;
+            try {
+                if (destination != null && Files.exists(destination)) {
+                    size = Files.size(destination);
+                }
+            } catch (IOException ignored) {
+                // 크기는 표시용
+            }
+            return new RecordingInfo(recording.getId(), template, recording.getState().name(),
+                    recording.getStartTime(), recording.getDuration(),
+                    destination == null ? null : destination.toString(), size);
+        }
+    }
+}
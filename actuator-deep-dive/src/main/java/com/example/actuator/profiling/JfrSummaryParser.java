@@ -0,0 +1,161 @@
+package com.example.actuator.profiling;
+
+import jdk.jfr.consumer.RecordedClass;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedMethod;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * jdk.jfr.consumer API로 .jfr 파일을 읽어 ProfileSummary를 만든다.
+ *
+ * 모든 이벤트를 한 번만 순회하며 (메서드/위치별) 집계 → 상위 N개만 반환.
+ *
+ * jdk.ThreadPark는 락 대기뿐 아니라 스레드 풀 워커가 큐에서 작업을 기다리는 유휴 대기도 포함한다.
+ * (ThreadPoolExecutor.getTask → LinkedBlockingQueue.take → ConditionObject.await → park)
+ * 유휴 대기를 경합으로 세면 요약 상위가 "일 없는 스레드"로 채워지므로,
+ * parkedClass가 AQS 동기화기(ReentrantLock/ReentrantReadWriteLock/Semaphore 등의 Sync)인 park만 센다.
+ */
+final class JfrSummaryParser {
+
+    private static final String EXECUTION_SAMPLE = "jdk.ExecutionSample";
+    private static final String ALLOCATION_SAMPLE = "jdk.ObjectAllocationSample";
+    private static final String MONITOR_ENTER = "jdk.JavaMonitorEnter";
+    private static final String THREAD_PARK = "jdk.ThreadPark";
+
+    private JfrSummaryParser() {
+    }
+
+    static ProfileSummary parse(long recordingId, Path file, int topN) throws IOException {
+        Map<String, Long> eventCounts = new TreeMap<>();
+        Map<String, Long> methodSamples = new HashMap<>();
+        Map<List<String>, long[]> allocations = new HashMap<>();    // [site, class] → [bytes, samples]
+        Map<List<String>, long[]> contention = new HashMap<>();     // [event, class, site] → [events, nanos]
+        Instant start = null;
+        Instant end = null;
+        long executionSamples = 0;
+
+        try (RecordingFile recordingFile = new RecordingFile(file)) {
+            while (recordingFile.hasMoreEvents()) {
+                RecordedEvent event = recordingFile.readEvent();
+                String type = event.getEventType().getName();
+                eventCounts.merge(type, 1L, Long::sum);
+                start = start == null || event.getStartTime().isBefore(start) ? event.getStartTime() : start;
+                end = end == null || event.getEndTime().isAfter(end) ? event.getEndTime() : end;
+
+                switch (type) {
+                    case EXECUTION_SAMPLE -> {
+                        executionSamples++;
+                        methodSamples.merge(topFrame(event.getStackTrace(), false), 1L, Long::sum);
+                    }
+                    case ALLOCATION_SAMPLE -> {
+                        long[] totals = allocations.computeIfAbsent(
+                                List.of(topFrame(event.getStackTrace(), false), className(event, "objectClass")),
+                                key -> new long[2]);
+                        totals[0] += event.getLong("weight");
+                        totals[1]++;
+                    }
+                    case THREAD_PARK -> {
+                        if (isLockPark(event)) {
+                            recordContention(contention, type, className(event, "parkedClass"), event);
+                        }
+                    }
+                    case MONITOR_ENTER -> recordContention(contention, type, className(event, "monitorClass"), event);
+                    default -> {
+                    }
+                }
+            }
+        }
+
+        long totalSamples = executionSamples;
+        List<ProfileSummary.HotMethod> hotMethods = methodSamples.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .limit(topN)
+                .map(entry -> new ProfileSummary.HotMethod(entry.getKey(), entry.getValue(),
+                        totalSamples == 0 ? 0 : entry.getValue() * 100.0 / totalSamples))
+                .toList();
+        List<ProfileSummary.AllocationSite> allocationSites = allocations.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<List<String>, long[]> entry) -> entry.getValue()[0]).reversed())
+                .limit(topN)
+                .map(entry -> new ProfileSummary.AllocationSite(entry.getKey().get(0), entry.getKey().get(1),
+                        entry.getValue()[0], entry.getValue()[1]))
+                .toList();
+        List<ProfileSummary.LockContention> lockContention = contention.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<List<String>, long[]> entry) -> entry.getValue()[1]).reversed())
+                .limit(topN)
+                .map(entry -> new ProfileSummary.LockContention(entry.getKey().get(0), entry.getKey().get(1),
+                        entry.getKey().get(2), entry.getValue()[0], Duration.ofNanos(entry.getValue()[1])))
+                .toList();
+
+        Duration duration = start == null ? Duration.ZERO : Duration.between(start, end);
+        return new ProfileSummary(recordingId, start, end, duration, executionSamples,
+                hotMethods, allocationSites, lockContention, eventCounts);
+    }
+
+    private static void recordContention(Map<List<String>, long[]> contention, String type,
+                                         String lockClass, RecordedEvent event) {
+        long[] totals = contention.computeIfAbsent(
+                List.of(type, lockClass, topFrame(event.getStackTrace(), true)),
+                key -> new long[2]);
+        totals[0]++;
+        totals[1] += event.getDuration().toNanos();
+    }
+
+    /**
+     * 락 획득을 기다린 park인지.
+     *
+     * JFR은 parkedClass의 상위 클래스를 주지 않으므로 이름으로 판단:
+     * AQS 동기화기는 관례상 "$Sync" / "$NonfairSync" / "$FairSync" 내부 클래스 (ThreadPoolExecutor$Worker 포함).
+     * ConditionObject(큐 대기), SynchronousQueue / LinkedTransferQueue / ForkJoinPool(유휴 워커),
+     * blocker 없는 LockSupport.park(parkedClass null)는 제외.
+     */
+    private static boolean isLockPark(RecordedEvent event) {
+        String parkedClass = className(event, "parkedClass");
+        return parkedClass.endsWith("$Sync")
+                || parkedClass.endsWith("$NonfairSync")
+                || parkedClass.endsWith("$FairSync")
+                || parkedClass.equals("java.util.concurrent.ThreadPoolExecutor$Worker");
+    }
+
+    /**
+     * 스택 최상단 메서드. skipJdkFrames면 LockSupport.park 같은 JDK 내부 프레임을 건너뛴 첫 호출 위치.
+     */
+    private static String topFrame(RecordedStackTrace stackTrace, boolean skipJdkFrames) {
+        if (stackTrace == null || stackTrace.getFrames().isEmpty()) {
+            return "<unknown>";
+        }
+        List<RecordedFrame> frames = stackTrace.getFrames();
+        if (skipJdkFrames) {
+            for (RecordedFrame frame : frames) {
+                String typeName = frame.getMethod().getType().getName();
+                if (!typeName.startsWith("java.") && !typeName.startsWith("jdk.") && !typeName.startsWith("sun.")) {
+                    return methodName(frame.getMethod());
+                }
+            }
+        }
+        return methodName(frames.get(0).getMethod());
+    }
+
+    private static String methodName(RecordedMethod method) {
+        return method.getType().getName() + "." + method.getName();
+    }
+
+    private static String className(RecordedEvent event, String field) {
+        if (!event.hasField(field)) {
+            return "<unknown>";
+        }
+        RecordedClass recordedClass = event.getValue(field);
+        return recordedClass == null ? "<unknown>" : recordedClass.getName();
+    }
+}
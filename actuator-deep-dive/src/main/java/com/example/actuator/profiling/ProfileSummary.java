@@ -0,0 +1,44 @@
+package com.example.actuator.profiling;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JFR 녹화 파일 요약
+ *
+ * @param hotMethods      CPU 샘플(jdk.ExecutionSample)이 가장 많이 잡힌 메서드 (스택 최상단 기준)
+ * @param allocationSites 할당량이 가장 큰 위치 (jdk.ObjectAllocationSample의 weight 합계)
+ * @param lockContention  대기 시간이 가장 긴 락 (jdk.JavaMonitorEnter, jdk.ThreadPark)
+ * @param eventCounts     이벤트 타입별 개수
+ */
+public record ProfileSummary(long recordingId, Instant start, Instant end, Duration duration,
+                             long executionSamples,
+                             List<HotMethod> hotMethods,
+                             List<AllocationSite> allocationSites,
+                             List<LockContention> lockContention,
+                             Map<String, Long> eventCounts) {
+
+    /**
+     * @param percent 전체 CPU 샘플 중 비율
+     */
+    public record HotMethod(String method, long samples, double percent) {
+    }
+
+    /**
+     * @param site        할당한 메서드
+     * @param objectClass 할당된 타입
+     * @param bytes       추정 할당 바이트 (샘플 weight 합계)
+     */
+    public record AllocationSite(String site, String objectClass, long bytes, long samples) {
+    }
+
+    /**
+     * @param event     jdk.JavaMonitorEnter(synchronized) / jdk.ThreadPark(AQS 락 대기만, 큐 유휴 대기 제외)
+     * @param lockClass 경합한 모니터/락 클래스
+     * @param site      대기한 메서드 (JDK 내부 프레임을 건너뛴 첫 호출 위치)
+     */
+    public record LockContention(String event, String lockClass, String site, long events, Duration totalWait) {
+    }
+}
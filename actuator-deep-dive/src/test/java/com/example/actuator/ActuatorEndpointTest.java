@@ -1,15 +1,40 @@
 package com.example.actuator;
 
+import com.example.actuator.health.AsyncHealthIndicator;
+import com.example.actuator.metrics.BoundedTagMeters;
+import com.jayway.jsonpath.JsonPath;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.SimpleStatusAggregator;
+import org.springframework.boot.actuate.health.Status;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -23,6 +48,9 @@ class ActuatorEndpointTest {
     @Autowired
     private MockMvc mockMvc;
 
+    @Autowired
+    private CacheManager cacheManager;
+
     /**
      * Health 엔드포인트는 인증 없이 접근 가능
      */
@@ -106,6 +134,46 @@ class ActuatorEndpointTest {
                 .andExpect(jsonPath("$.hitRate").exists());
     }
 
+    /**
+     * 캐시 통계는 실제 캐시 사용량을 반영 (엔드포인트 + Micrometer 메트릭)
+     */
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void testCacheStatsEndpoint_RealCounters() throws Exception {
+        Cache cache = cacheManager.getCache("users");
+        cache.get("user-1");                            // miss
+        cache.get("user-1", () -> "kim");               // miss + load
+        cache.get("user-1");                            // hit
+        cache.put("user-2", "lee");                     // put
+        cache.evict("user-2");                          // eviction
+
+        mockMvc.perform(get("/actuator/cache-stats/users"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.size").value(1))
+                .andExpect(jsonPath("$.hitCount").value(1))
+                .andExpect(jsonPath("$.missCount").value(2))
+                .andExpect(jsonPath("$.loadCount").value(1))
+                .andExpect(jsonPath("$.putCount").value(1))
+                .andExpect(jsonPath("$.evictionCount").value(1));
+
+        mockMvc.perform(get("/actuator/metrics/cache.gets")
+                        .param("tag", "cache:users")
+                        .param("tag", "result:hit"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.measurements[0].value").value(1.0));
+    }
+
+    /**
+     * 존재하지 않는 캐시는 404
+     */
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void testCacheStatsEndpoint_UnknownCache() throws Exception {
+        mockMvc.perform(get("/actuator/cache-stats/unknown"))
+                .andExpect(status().isNotFound());
+    }
+
     /**
      * 주문 생성 후 메트릭 확인
      */
@@ -125,4 +193,196 @@ class ActuatorEndpointTest {
                 .andExpect(jsonPath("$.name").value("orders.created"))
                 .andExpect(jsonPath("$.measurements[0].value").exists());
     }
+
+    /**
+     * 주문 처리 시간의 백분위수와 SLO 버킷이 설정에 따라 노출되는지 확인
+     */
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void testLatencyReportEndpoint() throws Exception {
+        mockMvc.perform(post("/api/orders")
+                        .contentType("application/json")
+                        .content("{\"category\":\"books\",\"amount\":30000}"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/actuator/latency-report/orders.processing.time"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].count").isNumber())
+                .andExpect(jsonPath("$[0].p50Ms").isNumber())
+                .andExpect(jsonPath("$[0].p999Ms").isNumber());
+
+        mockMvc.perform(get("/actuator/latency-report"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$['orders.processing.time']").isArray());
+
+        // SLO 경계(300ms) 버킷
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("orders_processing_time_seconds_bucket{")))
+                .andExpect(content().string(containsString("le=\"0.3\"")));
+    }
+
+    /**
+     * 태그 값 종류가 상한을 넘으면 "other"로 합쳐지고, 같은 값은 같은 Counter를 재사용
+     */
+    @Test
+    void testBoundedTagMeters() {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        BoundedTagMeters<Counter> counters = new BoundedTagMeters<>(3, List.of("electronics", "food"),
+                category -> Counter.builder("orders.by.category")
+                        .tag("category", category)
+                        .register(registry));
+
+        assertThat(counters.get("Electronics")).isSameAs(counters.get("electronics"));
+        counters.get("books").increment();        // 3번째 값까지 등록
+        counters.get("toys").increment();         // 상한 초과 → other
+        counters.get("garden").increment();       // 상한 초과 → other
+        counters.get(null).increment();           // 상한 초과 → other ("unknown"도 새 값)
+
+        assertThat(counters.size()).isEqualTo(3);
+        assertThat(registry.get("orders.by.category").tag("category", "books").counter().count()).isEqualTo(1.0);
+        assertThat(registry.get("orders.by.category").tag("category", BoundedTagMeters.OTHER).counter().count())
+                .isEqualTo(3.0);
+        assertThat(registry.find("orders.by.category").tag("category", "toys").counter()).isNull();
+    }
+
+    /**
+     * 비동기 헬스 체크: 느린 체크는 타임아웃 후 DOWN, 끝나기 전에는 다시 실행하지 않고, 결과는 캐시해서 반환
+     */
+    @Test
+    void testAsyncHealthIndicator_Timeout() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger checks = new AtomicInteger();
+        AsyncHealthIndicator slow = new AsyncHealthIndicator("slow",
+                Duration.ofSeconds(10), Duration.ofMillis(100), Duration.ofSeconds(10)) {
+            @Override
+            protected Health check() throws Exception {
+                checks.incrementAndGet();
+                release.await();
+                return Health.up().build();
+            }
+        };
+        ExecutorService executor = Executors.newCachedThreadPool();
+        try {
+            assertThat(slow.health().getStatus()).isEqualTo(Status.UNKNOWN); // 첫 체크 전
+
+            slow.refresh(executor);
+            Thread.sleep(300);
+            Health timedOut = slow.health();
+            assertThat(timedOut.getStatus()).isEqualTo(Status.DOWN);
+            assertThat(timedOut.getDetails()).containsKeys("error", "stalenessMs", "checkedAt");
+
+            slow.refresh(executor); // 이전 체크가 아직 실행 중 → 건너뜀
+            assertThat(checks.get()).isEqualTo(1);
+
+            release.countDown();
+            Thread.sleep(100);
+            slow.refresh(executor);
+            for (int i = 0; i < 20 && slow.health().getStatus() != Status.UP; i++) {
+                Thread.sleep(50);
+            }
+            assertThat(slow.health().getStatus()).isEqualTo(Status.UP);
+            assertThat(checks.get()).isEqualTo(2);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * 비동기 헬스 체크: UP 뒤에 체크가 멈춰 결과가 maxStaleness보다 오래되면 DOWN (UNKNOWN이면 전체 상태가 UP으로 남음)
+     */
+    @Test
+    void testAsyncHealthIndicator_HungThenStale() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger checks = new AtomicInteger();
+        AsyncHealthIndicator hung = new AsyncHealthIndicator("hung",
+                Duration.ofSeconds(10), Duration.ofMillis(100), Duration.ofMillis(300)) {
+            @Override
+            protected Health check() throws Exception {
+                if (checks.incrementAndGet() > 1) {
+                    release.await(); // 두 번째 체크부터 멈춤
+                }
+                return Health.up().build();
+            }
+        };
+        ExecutorService executor = Executors.newCachedThreadPool();
+        try {
+            hung.refresh(executor);
+            for (int i = 0; i < 20 && hung.health().getStatus() != Status.UP; i++) {
+                Thread.sleep(50);
+            }
+            assertThat(hung.health().getStatus()).isEqualTo(Status.UP);
+
+            hung.refresh(executor); // 멈춤 → 타임아웃 DOWN 기록
+            Thread.sleep(200);
+            hung.refresh(executor); // 아직 실행 중 → 건너뜀, 결과가 갱신되지 않음
+            assertThat(checks.get()).isEqualTo(2);
+
+            Thread.sleep(400);
+            Health stale = hung.health();
+            assertThat(stale.getStatus()).isEqualTo(Status.DOWN);
+            assertThat(stale.getDetails()).containsEntry("stale", true).containsKeys("reason", "lastStatus");
+
+            // 다른 인디케이터가 UP이어도 전체 상태는 DOWN
+            Status overall = new SimpleStatusAggregator().getAggregateStatus(Set.of(Status.UP, stale.getStatus()));
+            assertThat(overall).isEqualTo(Status.DOWN);
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * JFR 프로파일링: 시작 → 부하 → 중지 → 요약 / 파일 다운로드
+     */
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void testProfilingEndpoint() throws Exception {
+        MvcResult started = mockMvc.perform(post("/actuator/profiling")
+                        .contentType("application/json")
+                        .content("{\"template\":\"profile\",\"durationSeconds\":60}"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.state").value("RUNNING"))
+                .andReturn();
+        long recordingId = ((Number) JsonPath.read(started.getResponse().getContentAsString(), "$.id")).longValue();
+
+        // 이미 녹화 중이면 400
+        mockMvc.perform(post("/actuator/profiling")
+                        .contentType("application/json")
+                        .content("{}"))
+                .andExpect(status().isBadRequest());
+
+        // CPU + 할당 부하
+        long deadline = System.currentTimeMillis() + 1_000;
+        StringBuilder sink = new StringBuilder();
+        while (System.currentTimeMillis() < deadline) {
+            sink.append(Long.toHexString(System.nanoTime()));
+            if (sink.length() > 100_000) {
+                sink.setLength(0);
+            }
+        }
+
+        mockMvc.perform(delete("/actuator/profiling"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(recordingId))
+                .andExpect(jsonPath("$.sizeBytes").isNumber());
+
+        mockMvc.perform(get("/actuator/profiling/" + recordingId + "/summary"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.executionSamples").isNumber())
+                .andExpect(jsonPath("$.hotMethods").isArray())
+                .andExpect(jsonPath("$.allocationSites").isArray())
+                .andExpect(jsonPath("$.lockContention").isArray());
+
+        mockMvc.perform(get("/actuator/profiling/" + recordingId))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", containsString("application/octet-stream")));
+
+        // 실행 중인 녹화가 없으면 404
+        mockMvc.perform(delete("/actuator/profiling"))
+                .andExpect(status().isNotFound());
+    }
 }
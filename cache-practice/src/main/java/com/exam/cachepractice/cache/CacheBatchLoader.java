@@ -0,0 +1,84 @@
+package com.exam.cachepractice.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * 다건 Look Aside: @Cacheable은 키 1개 단위라 상품 50개 목록이면 Redis GET 50번 + DB 조회 최대 50번.
+ *
+ * getAll(cacheName, keys, loader):
+ *   1. L1 조회 → 나머지는 Redis MGET 1번
+ *   2. 그래도 없는 키만 loader 1번 호출 (예: findAllById → IN 쿼리 1번)
+ *   3. 로드한 값은 파이프라인 SET NX(TTL 포함) 1번으로 L2에 채우고, 실제로 저장된 항목만 L1에도 채움
+ *      (그 사이 @CachePut으로 들어온 새 값은 덮어쓰지 않음)
+ *
+ * TwoLevelCache가 아닌 캐시는 키별 get/putIfAbsent로 동작한다 (결과는 같고 왕복만 N번).
+ */
+public class CacheBatchLoader {
+
+    private final CacheManager cacheManager;
+
+    public CacheBatchLoader(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    /**
+     * @param loader 캐시에 없는 키 → (키 → 값). 원본에도 없는 키는 결과에서 빼면 된다 (캐싱하지 않음).
+     * @return 찾은 키 → 값 (캐시 + 원본 어디에도 없는 키는 포함하지 않음)
+     */
+    @SuppressWarnings("unchecked")
+    public <K, V> Map<K, V> getAll(String cacheName, Collection<K> keys, Function<Set<K>, Map<K, V>> loader) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache == null) {
+            throw new IllegalArgumentException("Cannot find cache named '" + cacheName + "'");
+        }
+        Set<K> distinctKeys = new LinkedHashSet<>(keys);
+        if (distinctKeys.isEmpty()) {
+            return Map.of();
+        }
+
+        Map<K, V> result = new HashMap<>();
+        TwoLevelCache twoLevelCache = unwrap(cache);
+        if (twoLevelCache != null) {
+            twoLevelCache.getAll(distinctKeys).forEach((key, value) -> result.put((K) key, (V) value));
+        } else {
+            for (K key : distinctKeys) {
+                Cache.ValueWrapper value = cache.get(key);
+                if (value != null && value.get() != null) {
+                    result.put(key, (V) value.get());
+                }
+            }
+        }
+
+        Set<K> misses = new LinkedHashSet<>(distinctKeys);
+        misses.removeAll(result.keySet());
+        if (misses.isEmpty()) {
+            return result;
+        }
+
+        Map<K, V> loaded = new HashMap<>(loader.apply(misses));
+        loaded.keySet().retainAll(misses); // 요청하지 않은 키는 캐시에 넣지 않음
+        loaded.values().removeIf(value -> value == null);
+        if (twoLevelCache != null) {
+            twoLevelCache.putAllIfAbsent(loaded);
+        } else {
+            loaded.forEach(cache::putIfAbsent);
+        }
+        result.putAll(loaded);
+        return result;
+    }
+
+    private static TwoLevelCache unwrap(Cache cache) {
+        if (cache instanceof StampedeProtectedCache decorated) {
+            cache = decorated.getDelegate();
+        }
+        return cache instanceof TwoLevelCache twoLevelCache ? twoLevelCache : null;
+    }
+}
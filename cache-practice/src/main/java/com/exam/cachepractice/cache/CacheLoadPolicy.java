@@ -0,0 +1,27 @@
+package com.exam.cachepractice.cache;
+
+import java.util.function.Function;
+
+/**
+ * 캐시별 로딩 정책 (CacheConfig에서 캐시 이름별로 지정).
+ *
+ * @param singleFlight     같은 키의 동시 Miss는 노드당 1번만 로드, 나머지는 같은 결과를 기다림
+ * @param refreshAheadBeta XFetch 조기 갱신 강도 (0이면 사용 안 함, 1.0이 기본값, 클수록 일찍 갱신)
+ * @param refreshLoader    조기 갱신에 쓸 원본 조회 (캐시 키 → 값)
+ *                         @Cacheable이 넘긴 valueLoader는 이미 끝난 호출의 나머지 인터셉터 체인이라
+ *                         다른 스레드에서 다시 실행하면 @Transactional 등이 적용되지 않음 → 프록시를 거치는 조회를 따로 지정
+ */
+public record CacheLoadPolicy(boolean singleFlight, double refreshAheadBeta, Function<Object, ?> refreshLoader) {
+
+    public static CacheLoadPolicy singleFlightOnly() {
+        return new CacheLoadPolicy(true, 0, null);
+    }
+
+    public static CacheLoadPolicy refreshAhead(double beta, Function<Object, ?> refreshLoader) {
+        return new CacheLoadPolicy(true, beta, refreshLoader);
+    }
+
+    public boolean isRefreshAhead() {
+        return refreshAheadBeta > 0 && refreshLoader != null;
+    }
+}
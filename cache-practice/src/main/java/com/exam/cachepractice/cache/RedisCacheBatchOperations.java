@@ -0,0 +1,109 @@
+package com.exam.cachepractice.cache;
+
+import org.springframework.cache.support.NullValue;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * RedisCache에 없는 다건 연산: MGET 1번 조회 / 파이프라인 SET NX(TTL 포함) 1번 왕복.
+ *
+ * 키/값 형식은 RedisCache와 같게 맞춘다.
+ *   - 키: 캐시 설정의 prefix + String.valueOf(key)  (예: "products:bin:v2::1")
+ *   - 값: 캐시 설정의 value serializer, TTL도 캐시 설정의 TTL
+ *   → @Cacheable 단건 조회와 같은 항목을 읽고 쓴다.
+ */
+class RedisCacheBatchOperations {
+
+    private final StringRedisTemplate redisTemplate;
+    private final String cacheName;
+    private final RedisCacheConfiguration configuration;
+
+    RedisCacheBatchOperations(StringRedisTemplate redisTemplate, RedisCache redisCache) {
+        this.redisTemplate = redisTemplate;
+        this.cacheName = redisCache.getName();
+        this.configuration = redisCache.getCacheConfiguration();
+    }
+
+    /**
+     * MGET 1번. 찾은 키만 반환 (null 캐싱 값(NullValue)은 Miss로 취급).
+     */
+    Map<Object, Object> getAll(List<?> keys) {
+        byte[][] redisKeys = keys.stream().map(this::redisKey).toArray(byte[][]::new);
+        List<byte[]> values = redisTemplate.execute((RedisCallback<List<byte[]>>) connection ->
+                connection.stringCommands().mGet(redisKeys));
+
+        Map<Object, Object> found = new HashMap<>();
+        for (int i = 0; values != null && i < keys.size(); i++) {
+            byte[] bytes = values.get(i);
+            if (bytes == null) {
+                continue;
+            }
+            Object value = configuration.getValueSerializationPair().read(ByteBuffer.wrap(bytes));
+            if (value != null && !(value instanceof NullValue)) {
+                found.put(keys.get(i), value);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * SET key value PX ttl NX 를 파이프라인으로 한 번에 전송 (MSET은 TTL을 지정할 수 없음).
+     * 이미 있는 키는 덮어쓰지 않음 → DB를 읽은 뒤 들어온 @CachePut의 새 값을 오래된 값으로 되돌리지 않음.
+     *
+     * @return 실제로 저장된 항목
+     */
+    Map<Object, Object> putAllIfAbsent(Map<?, ?> entries) {
+        List<Object> keys = new ArrayList<>(entries.keySet());
+        List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (Object key : keys) {
+                Object value = entries.get(key);
+                connection.stringCommands().set(
+                        redisKey(key),
+                        toBytes(configuration.getValueSerializationPair().write(value)),
+                        expiration(key, value),
+                        RedisStringCommands.SetOption.ifAbsent());
+            }
+            return null;
+        });
+
+        Map<Object, Object> written = new HashMap<>();
+        for (int i = 0; i < keys.size(); i++) {
+            if (Boolean.TRUE.equals(results.get(i))) {
+                written.put(keys.get(i), entries.get(keys.get(i)));
+            }
+        }
+        return written;
+    }
+
+    private byte[] redisKey(Object key) {
+        String prefixed = configuration.usePrefix()
+                ? configuration.getKeyPrefixFor(cacheName) + key
+                : String.valueOf(key);
+        return prefixed.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private Expiration expiration(Object key, Object value) {
+        Duration ttl = configuration.getTtlFunction().getTimeToLive(key, value);
+        return ttl == null || ttl.isZero() || ttl.isNegative()
+                ? Expiration.persistent()
+                : Expiration.from(ttl);
+    }
+
+    private static byte[] toBytes(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return bytes;
+    }
+}
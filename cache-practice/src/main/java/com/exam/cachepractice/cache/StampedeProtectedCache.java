@@ -0,0 +1,221 @@
+package com.exam.cachepractice.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 캐시 스탬피드 방지 데코레이터. @Cacheable(sync = true)의 get(key, loader) 경로에서 동작한다.
+ *
+ * 1. Single-Flight: 같은 키가 동시에 Miss나면 첫 요청만 로드, 나머지는 그 CompletableFuture를 기다림
+ *    → 인기 키가 만료되는 순간 DB 쿼리 N번 → 1번 (노드당)
+ *
+ * 2. XFetch (Probabilistic Early Expiration): Hit여도 아래 조건이면 백그라운드에서 미리 다시 로드
+ *      now - delta * beta * ln(random()) >= expiry
+ *    - delta: 직전 로드에 걸린 시간 (오래 걸리는 키일수록 일찍 갱신)
+ *    - 만료가 가까울수록 확률이 급격히 커짐 → 요청이 많은 키는 TTL 전에 거의 확실히 갱신됨
+ *    - 갱신 중에도 호출자는 기존 값을 즉시 받음 (갱신도 Single-Flight)
+ *    - 갱신은 정책의 refreshLoader로 실행 (호출자의 valueLoader를 다른 스레드에서 재실행하지 않음)
+ *
+ * delta/expiry는 이 노드가 직접 로드한 키만 알고 있다 (다른 노드가 로드한 값은 그 노드가 갱신).
+ */
+@Slf4j
+public class StampedeProtectedCache implements Cache {
+
+    private final Cache delegate;
+    private final CacheLoadPolicy policy;
+    private final long ttlMillis;
+    private final Executor refreshExecutor;
+
+    private final Map<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    // 이 노드가 로드한 키의 XFetch 정보 (값과 같은 TTL로 만료)
+    private final com.github.benmanes.caffeine.cache.Cache<String, LoadStats> loadStats;
+
+    public StampedeProtectedCache(Cache delegate, CacheLoadPolicy policy, Duration ttl,
+                                  long maximumSize, Executor refreshExecutor) {
+        this.delegate = delegate;
+        this.policy = policy;
+        this.ttlMillis = ttl == null ? 0 : ttl.toMillis();
+        this.refreshExecutor = refreshExecutor;
+
+        Caffeine<Object, Object> builder = Caffeine.newBuilder().maximumSize(maximumSize);
+        if (ttlMillis > 0) {
+            builder.expireAfterWrite(ttl);
+        }
+        this.loadStats = builder.build();
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    public Cache getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper cached = delegate.get(key);
+        if (cached != null) {
+            if (shouldRefreshEarly(key)) {
+                refreshInBackground(key);
+            }
+            return (T) cached.get();
+        }
+        if (!policy.singleFlight()) {
+            return load(key, valueLoader);
+        }
+
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> leader = inFlight.putIfAbsent(localKey(key), mine);
+        if (leader != null) {
+            return (T) await(key, valueLoader, leader); // 다른 스레드가 로드 중 → 결과 공유
+        }
+        try {
+            // 대기하는 사이 다른 스레드가 채웠을 수 있음
+            ValueWrapper loaded = delegate.get(key);
+            T value = loaded != null ? (T) loaded.get() : load(key, valueLoader);
+            mine.complete(value);
+            return value;
+        } catch (Throwable e) {
+            // Error도 전달해야 대기 중인 스레드가 영원히 기다리지 않음
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(localKey(key), mine);
+        }
+    }
+
+    private <T> T load(Object key, Callable<T> valueLoader) {
+        long start = System.currentTimeMillis();
+        T value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        long now = System.currentTimeMillis();
+        delegate.put(key, value);
+        if (policy.isRefreshAhead() && ttlMillis > 0) {
+            loadStats.put(localKey(key), new LoadStats(now - start, now + ttlMillis));
+        }
+        return value;
+    }
+
+    private boolean shouldRefreshEarly(Object key) {
+        if (!policy.isRefreshAhead()) {
+            return false;
+        }
+        LoadStats stats = loadStats.getIfPresent(localKey(key));
+        if (stats == null) {
+            return false;
+        }
+        // -ln(random) ∈ (0, ∞): 대부분 작고 가끔 큼 → 만료에 가까울수록 조건을 만족할 확률 증가
+        double random = ThreadLocalRandom.current().nextDouble();
+        double earlyMillis = Math.max(stats.deltaMillis(), 1) * policy.refreshAheadBeta() * -Math.log(random);
+        return System.currentTimeMillis() + earlyMillis >= stats.expiresAtMillis();
+    }
+
+    private void refreshInBackground(Object key) {
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        if (inFlight.putIfAbsent(localKey(key), mine) != null) {
+            return; // 이미 갱신 중
+        }
+        Callable<Object> refreshLoader = () -> policy.refreshLoader().apply(key);
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    mine.complete(load(key, refreshLoader));
+                    log.debug("조기 갱신 완료 - cache: {}, key: {}", getName(), key);
+                } catch (Throwable e) {
+                    mine.completeExceptionally(e);
+                    log.warn("조기 갱신 실패 - cache: {}, key: {}", getName(), key, e);
+                    if (e instanceof Error error) {
+                        throw error;
+                    }
+                } finally {
+                    inFlight.remove(localKey(key), mine);
+                }
+            });
+        } catch (RuntimeException e) {
+            // 실행기 포화 → 이번 갱신은 건너뜀 (다음 Hit에서 다시 시도)
+            inFlight.remove(localKey(key), mine);
+            mine.cancel(false);
+        }
+    }
+
+    private Object await(Object key, Callable<?> valueLoader, CompletableFuture<Object> leader) {
+        try {
+            return leader.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new ValueRetrievalException(key, valueLoader, e.getCause());
+        }
+    }
+
+    // 나머지 연산은 그대로 위임 (쓰기/삭제 시 XFetch 정보도 제거)
+
+    @Override
+    public ValueWrapper get(Object key) {
+        return delegate.get(key);
+    }
+
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+        return delegate.get(key, type);
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        delegate.put(key, value);
+        loadStats.invalidate(localKey(key)); // 로드가 아닌 쓰기 → delta 모름
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        return delegate.putIfAbsent(key, value);
+    }
+
+    @Override
+    public void evict(Object key) {
+        delegate.evict(key);
+        loadStats.invalidate(localKey(key));
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        loadStats.invalidate(localKey(key));
+        return delegate.evictIfPresent(key);
+    }
+
+    @Override
+    public void clear() {
+        delegate.clear();
+        loadStats.invalidateAll();
+    }
+
+    private static String localKey(Object key) {
+        return String.valueOf(key);
+    }
+
+    private record LoadStats(long deltaMillis, long expiresAtMillis) {
+    }
+}
@@ -0,0 +1,214 @@
+package com.exam.cachepractice.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.function.Consumer;
+
+/**
+ * L1(로컬, Caffeine) + L2(Redis) 2단 캐시.
+ *
+ * 조회: L1 → L2 → (없으면) 원본. L2에서 찾으면 L1에 채움.
+ * 변경(put/evict/clear): L2 반영 → 내 L1 반영 → 다른 노드에 L1 무효화 메시지 발행.
+ *   다른 노드는 L1만 지우고, 다음 조회 때 L2에서 최신 값을 가져간다.
+ *
+ * L1 키는 Redis 키와 같은 문자열 형태(String.valueOf(key))로 저장한다.
+ *   → 무효화 메시지로 받은 문자열 키로 바로 지울 수 있음
+ *
+ * 다건 조회(getAll/putAllIfAbsent): L1 → L2 MGET 1번 → 파이프라인 SET NX 1번 (L2가 Redis일 때)
+ */
+public class TwoLevelCache implements Cache {
+
+    private final String name;
+    private final Cache local;
+    private final Cache remote;
+    private final Consumer<String> invalidationPublisher; // key (null이면 전체)
+    private final RedisCacheBatchOperations remoteBatch; // L2가 Redis가 아니면 null → 키별 조회/저장
+
+    public TwoLevelCache(String name, Cache local, Cache remote, Consumer<String> invalidationPublisher) {
+        this(name, local, remote, invalidationPublisher, null);
+    }
+
+    TwoLevelCache(String name, Cache local, Cache remote, Consumer<String> invalidationPublisher,
+                  RedisCacheBatchOperations remoteBatch) {
+        this.name = name;
+        this.local = local;
+        this.remote = remote;
+        this.invalidationPublisher = invalidationPublisher;
+        this.remoteBatch = remoteBatch;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return remote.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        String localKey = localKey(key);
+        ValueWrapper value = local.get(localKey);
+        if (value != null) {
+            return value;
+        }
+        value = remote.get(key);
+        if (value != null) {
+            local.put(localKey, value.get());
+        }
+        return value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper value = get(key);
+        if (value == null) {
+            return null;
+        }
+        Object stored = value.get();
+        if (stored != null && type != null && !type.isInstance(stored)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + stored);
+        }
+        return (T) stored;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper value = local.get(localKey(key));
+        if (value != null) {
+            return (T) value.get();
+        }
+        T loaded = remote.get(key, valueLoader);
+        local.put(localKey(key), loaded);
+        return loaded;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        remote.put(key, value);
+        local.put(localKey(key), value);
+        invalidationPublisher.accept(localKey(key));
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = remote.putIfAbsent(key, value);
+        Object current = existing == null ? value : existing.get();
+        local.put(localKey(key), current);
+        return existing == null ? null : new SimpleValueWrapper(current);
+    }
+
+    @Override
+    public void evict(Object key) {
+        remote.evict(key);
+        local.evict(localKey(key));
+        invalidationPublisher.accept(localKey(key));
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean evicted = remote.evictIfPresent(key);
+        local.evict(localKey(key));
+        invalidationPublisher.accept(localKey(key));
+        return evicted;
+    }
+
+    @Override
+    public void clear() {
+        remote.clear();
+        local.clear();
+        invalidationPublisher.accept(null);
+    }
+
+    /**
+     * 다건 조회: L1에서 찾고, 나머지는 L2에서 한 번에 조회 (L2에서 찾은 값은 L1에 채움).
+     *
+     * @return 찾은 키 → 값 (없는 키는 포함하지 않음)
+     */
+    public Map<Object, Object> getAll(Collection<?> keys) {
+        Map<Object, Object> found = new HashMap<>();
+        List<Object> localMisses = new ArrayList<>();
+        for (Object key : keys) {
+            ValueWrapper value = local.get(localKey(key));
+            if (value != null && value.get() != null) {
+                found.put(key, value.get());
+            } else {
+                localMisses.add(key);
+            }
+        }
+        if (localMisses.isEmpty()) {
+            return found;
+        }
+
+        Map<Object, Object> remoteHits = new HashMap<>();
+        if (remoteBatch != null) {
+            remoteHits.putAll(remoteBatch.getAll(localMisses));
+        } else {
+            for (Object key : localMisses) {
+                ValueWrapper value = remote.get(key);
+                if (value != null && value.get() != null) {
+                    remoteHits.put(key, value.get());
+                }
+            }
+        }
+        remoteHits.forEach((key, value) -> local.put(localKey(key), value));
+        found.putAll(remoteHits);
+        return found;
+    }
+
+    /**
+     * 다건 저장: 원본에서 읽어 온 Miss 값을 L2/L1에 채운다 (파이프라인 1번 왕복).
+     *
+     * 캐시 채우기라 putIfAbsent 의미: L2에 이미 있는 키는 덮어쓰지 않고(SET NX),
+     * L1에는 L2에 실제로 저장된 항목만 넣는다.
+     *   → DB를 읽은 뒤 다른 요청의 @CachePut이 먼저 저장한 새 값을 오래된 값으로 되돌리지 않음
+     * 무효화 메시지는 보내지 않는다. 값을 변경할 때는 put/evict를 사용 (다른 노드 L1 무효화)
+     */
+    public void putAllIfAbsent(Map<?, ?> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        Map<Object, Object> written;
+        if (remoteBatch != null) {
+            written = remoteBatch.putAllIfAbsent(entries);
+        } else {
+            written = new HashMap<>();
+            entries.forEach((key, value) -> {
+                if (remote.putIfAbsent(key, value) == null) {
+                    written.put(key, value);
+                }
+            });
+        }
+        written.forEach((key, value) -> local.put(localKey(key), value));
+    }
+
+    /**
+     * 다른 노드의 변경 알림 수신 → 내 L1만 제거 (L2는 이미 반영됨).
+     */
+    void evictLocal(String localKey) {
+        if (localKey == null) {
+            local.clear();
+        } else {
+            local.evict(localKey);
+        }
+    }
+
+    public boolean isCachedLocally(Object key) {
+        return local.get(localKey(key)) != null;
+    }
+
+    private static String localKey(Object key) {
+        return String.valueOf(key);
+    }
+}
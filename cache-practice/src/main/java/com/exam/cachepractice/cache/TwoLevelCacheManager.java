@@ -0,0 +1,130 @@
+package com.exam.cachepractice.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+/**
+ * RedisCacheManager(L2) 앞에 Caffeine(L1)을 붙이는 CacheManager.
+ *
+ * - L1 TTL: 같은 이름의 Redis 캐시 설정(CacheConfig의 cacheConfigurations)의 TTL을 그대로 사용
+ * - L1 크기: 캐시당 최대 localMaximumSize개 (넘으면 Caffeine이 W-TinyLFU로 제거)
+ * - 로딩 정책: loadPolicies에 이름이 있는 캐시는 StampedeProtectedCache로 감쌈 (Single-Flight, XFetch)
+ * - 노드 간 L1 무효화: put/evict/clear 시 Redis Pub/Sub으로 "nodeId|cacheName|E|key" 발행
+ *   → 다른 노드는 자기 L1에서만 제거 (자기가 보낸 메시지는 무시)
+ *   → 메시지를 놓쳐도 L1 TTL이 지나면 L2에서 다시 읽음
+ */
+@Slf4j
+public class TwoLevelCacheManager implements CacheManager, MessageListener {
+
+    public static final String INVALIDATION_CHANNEL = "cache:l1:invalidate";
+
+    private static final String EVICT = "E";
+    private static final String CLEAR = "C";
+
+    private final RedisCacheManager redisCacheManager;
+    private final StringRedisTemplate redisTemplate;
+    private final long localMaximumSize;
+    private final Map<String, CacheLoadPolicy> loadPolicies;
+    private final Executor refreshExecutor;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final Map<String, TwoLevelCache> caches = new ConcurrentHashMap<>();
+    private final Map<String, Cache> decoratedCaches = new ConcurrentHashMap<>();
+
+    public TwoLevelCacheManager(RedisCacheManager redisCacheManager,
+                                StringRedisTemplate redisTemplate,
+                                long localMaximumSize,
+                                Map<String, CacheLoadPolicy> loadPolicies,
+                                Executor refreshExecutor) {
+        this.redisCacheManager = redisCacheManager;
+        this.redisTemplate = redisTemplate;
+        this.localMaximumSize = localMaximumSize;
+        this.loadPolicies = Map.copyOf(loadPolicies);
+        this.refreshExecutor = refreshExecutor;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        return decoratedCaches.computeIfAbsent(name, this::decorate);
+    }
+
+    private Cache decorate(String name) {
+        TwoLevelCache cache = caches.computeIfAbsent(name, this::createCache);
+        if (cache == null) {
+            return null;
+        }
+        CacheLoadPolicy policy = loadPolicies.get(name);
+        if (policy == null) {
+            return cache;
+        }
+        return new StampedeProtectedCache(cache, policy, ttlOf(redisCacheManager.getCache(name)),
+                localMaximumSize, refreshExecutor);
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return redisCacheManager.getCacheNames();
+    }
+
+    private TwoLevelCache createCache(String name) {
+        Cache remote = redisCacheManager.getCache(name);
+        if (remote == null) {
+            return null;
+        }
+        Caffeine<Object, Object> builder = Caffeine.newBuilder().maximumSize(localMaximumSize);
+        Duration ttl = ttlOf(remote);
+        if (ttl != null && !ttl.isZero() && !ttl.isNegative()) {
+            builder.expireAfterWrite(ttl);
+        }
+        Cache local = new CaffeineCache(name, builder.build(), true);
+        RedisCacheBatchOperations remoteBatch = remote instanceof RedisCache redisCache
+                ? new RedisCacheBatchOperations(redisTemplate, redisCache)
+                : null;
+        return new TwoLevelCache(name, local, remote, key -> publishInvalidation(name, key), remoteBatch);
+    }
+
+    private Duration ttlOf(Cache remote) {
+        if (remote instanceof RedisCache redisCache) {
+            // 고정 TTL 설정이면 key/value와 관계없이 같은 값
+            return redisCache.getCacheConfiguration().getTtlFunction().getTimeToLive(remote.getName(), null);
+        }
+        return null;
+    }
+
+    private void publishInvalidation(String cacheName, String key) {
+        String message = key == null
+                ? String.join("|", nodeId, cacheName, CLEAR)
+                : String.join("|", nodeId, cacheName, EVICT, key);
+        redisTemplate.convertAndSend(INVALIDATION_CHANNEL, message);
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\\|", 4);
+        if (parts.length < 3 || nodeId.equals(parts[0])) {
+            return; // 내가 보낸 메시지는 이미 반영됨
+        }
+        TwoLevelCache cache = caches.get(parts[1]);
+        if (cache == null) {
+            return; // 이 노드에서는 아직 사용하지 않은 캐시
+        }
+        cache.evictLocal(EVICT.equals(parts[2]) && parts.length == 4 ? parts[3] : null);
+        log.debug("L1 캐시 무효화 수신 - cache: {}, message: {}", parts[1], parts.length == 4 ? parts[3] : "*");
+    }
+}
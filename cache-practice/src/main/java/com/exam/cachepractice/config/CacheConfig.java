@@ -1,35 +1,57 @@
 package com.exam.cachepractice.config;
 
+import com.exam.cachepractice.cache.CacheBatchLoader;
+import com.exam.cachepractice.cache.CacheLoadPolicy;
+import com.exam.cachepractice.cache.TwoLevelCacheManager;
+import com.exam.cachepractice.domain.ProductSnapshot;
+import com.exam.cachepractice.serializer.CacheTypeRegistry;
+import com.exam.cachepractice.serializer.CompactBinaryRedisSerializer;
+import com.exam.cachepractice.service.ProductService;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.Ordered;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 
-@EnableCaching // 캐시 기능 활성화
+// 캐시 기능 활성화
+// order: 캐시 인터셉터가 @Transactional보다 바깥 → L1 Hit이면 트랜잭션(커넥션)을 열지 않고, Evict는 커밋 후 실행
+@EnableCaching(order = Ordered.HIGHEST_PRECEDENCE)
 @Configuration
 public class CacheConfig {
 
+    // L2: Redis
     @Bean
-    public RedisCacheManager cacheManager(RedisConnectionFactory connectionFactory) {
+    public RedisCacheManager redisCacheManager(RedisConnectionFactory connectionFactory,
+                                               CompactBinaryRedisSerializer compactBinaryRedisSerializer) {
         // 기본 설정: TTL 1시간, JSON 직렬화
         RedisCacheConfiguration defaultConfig = RedisCacheConfiguration.defaultCacheConfig()
                 .entryTtl(Duration.ofHours(1))
                 .serializeKeysWith(RedisSerializationContext.SerializationPair.fromSerializer(new StringRedisSerializer()))
                 .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(new GenericJackson2JsonRedisSerializer()));
 
-        // 캐시 이름별 개별 설정
+        // 캐시 이름별 개별 설정 (L1 TTL도 이 설정을 따름)
         Map<String, RedisCacheConfiguration> cacheConfigurations = new HashMap<>();
-        // "products" 캐시는 10분만 유지
-        cacheConfigurations.put("products", defaultConfig.entryTtl(Duration.ofMinutes(10)));
+        // "products" 캐시는 10분만 유지 + 바이너리 직렬화 (조회가 가장 많아 크기/CPU 절감 효과가 큼)
+        // 키 prefix를 바꿔 이전 형식 값(JSON, 엔티티 Product)과 섞이지 않게 함 (배포 직후 역직렬화 실패 방지)
+        cacheConfigurations.put("products", defaultConfig.entryTtl(Duration.ofMinutes(10))
+                .computePrefixWith(cacheName -> cacheName + ":bin:v2::")
+                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(compactBinaryRedisSerializer)));
         // "categories" 캐시는 1일 유지
         cacheConfigurations.put("categories", defaultConfig.entryTtl(Duration.ofDays(1)));
 
@@ -38,4 +60,67 @@ public class CacheConfig {
                 .withInitialCacheConfigurations(cacheConfigurations)
                 .build();
     }
+
+    // 바이너리 직렬화에 쓸 타입 ID (한 번 배포한 ID는 바꾸지 않음)
+    // 1: Product 엔티티 (더 이상 캐싱하지 않음, 재사용 금지)
+    @Bean
+    public CacheTypeRegistry cacheTypeRegistry() {
+        return new CacheTypeRegistry()
+                .register(2, ProductSnapshot.class);
+    }
+
+    // 타입 ID + Smile + LZ4 (payload가 임계치를 넘을 때만 압축)
+    @Bean
+    public CompactBinaryRedisSerializer compactBinaryRedisSerializer(CacheTypeRegistry cacheTypeRegistry,
+                                                                     @Value("${cache.serializer.compression-threshold:512}") int compressionThreshold) {
+        return new CompactBinaryRedisSerializer(cacheTypeRegistry, compressionThreshold);
+    }
+
+    // L1(Caffeine) + L2(Redis): @Cacheable 등은 이 매니저를 사용
+    @Bean
+    @Primary
+    public TwoLevelCacheManager cacheManager(RedisCacheManager redisCacheManager,
+                                             StringRedisTemplate redisTemplate,
+                                             ThreadPoolTaskExecutor cacheRefreshExecutor,
+                                             ObjectProvider<ProductService> productService,
+                                             @Value("${cache.l1.maximum-size:10000}") long localMaximumSize) {
+        // 캐시 이름별 스탬피드 방지 정책 (@Cacheable(sync = true)에서 동작)
+        Map<String, CacheLoadPolicy> loadPolicies = new HashMap<>();
+        // "products": TTL(10분) 경계에 인기 상품이 한꺼번에 만료 → Single-Flight + XFetch 조기 갱신
+        // 조기 갱신은 프록시를 거친 loadProduct로 실행 (@Transactional 적용, ProductService → 캐시 매니저 순환 참조라 지연 조회)
+        loadPolicies.put("products", CacheLoadPolicy.refreshAhead(1.0,
+                key -> productService.getObject().loadProduct((Long) key)));
+        // "categories": 1일 TTL, 조회 빈도 낮음 → 동시 Miss만 합침
+        loadPolicies.put("categories", CacheLoadPolicy.singleFlightOnly());
+
+        return new TwoLevelCacheManager(redisCacheManager, redisTemplate, localMaximumSize,
+                loadPolicies, cacheRefreshExecutor);
+    }
+
+    // 다건 조회: MGET 1번 + Miss만 원본 조회 + 파이프라인 SET 1번
+    @Bean
+    public CacheBatchLoader cacheBatchLoader(TwoLevelCacheManager cacheManager) {
+        return new CacheBatchLoader(cacheManager);
+    }
+
+    // XFetch 조기 갱신 실행기 (포화되면 갱신을 건너뛰고 기존 값으로 응답)
+    @Bean
+    public ThreadPoolTaskExecutor cacheRefreshExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(2);
+        executor.setQueueCapacity(100);
+        executor.setThreadNamePrefix("cache-refresh-");
+        return executor;
+    }
+
+    // 다른 노드의 put/evict → 내 L1 무효화
+    @Bean
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                            TwoLevelCacheManager cacheManager) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(cacheManager, new ChannelTopic(TwoLevelCacheManager.INVALIDATION_CHANNEL));
+        return container;
+    }
 }
@@ -0,0 +1,39 @@
+package com.exam.cachepractice.domain;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * 캐시에 저장하는 상품 스냅샷 (불변).
+ *
+ * L1(Caffeine)은 값을 참조 그대로 보관한다. JPA 엔티티(Product)를 캐싱하면
+ * 호출자가 반환값을 수정하거나 @CachePut이 넘긴 영속 엔티티가 나중에 바뀌는 순간
+ * 만료 전까지 모든 스레드가 보는 캐시 값이 같이 바뀐다.
+ * → final 필드만 있는 스냅샷을 만들어 캐싱
+ */
+@Getter
+@ToString
+@EqualsAndHashCode
+public final class ProductSnapshot {
+
+    private final Long id;
+    private final String name;
+    private final Long price;
+
+    // 바이너리 직렬화(Smile) 역직렬화용 생성자 (setter가 없으므로 명시)
+    @JsonCreator
+    public ProductSnapshot(@JsonProperty("id") Long id,
+                           @JsonProperty("name") String name,
+                           @JsonProperty("price") Long price) {
+        this.id = id;
+        this.name = name;
+        this.price = price;
+    }
+
+    public static ProductSnapshot from(Product product) {
+        return new ProductSnapshot(product.getId(), product.getName(), product.getPrice());
+    }
+}
@@ -0,0 +1,38 @@
+package com.exam.cachepractice.serializer;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 캐시 값 타입 ↔ 짧은 ID 매핑.
+ *
+ * GenericJackson2JsonRedisSerializer는 값마다 "@class":"com.exam.cachepractice.domain.Product"(45바이트)를 넣는다.
+ * 타입을 미리 등록해 두면 2바이트 ID로 대체된다.
+ *
+ * 주의: 한 번 배포한 ID는 바꾸지 않는다 (Redis에 남은 값을 다른 타입으로 읽게 됨).
+ */
+public class CacheTypeRegistry {
+
+    private final Map<Short, Class<?>> typesById = new ConcurrentHashMap<>();
+    private final Map<Class<?>, Short> idsByType = new ConcurrentHashMap<>();
+
+    public CacheTypeRegistry register(int id, Class<?> type) {
+        if (id <= 0 || id > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("type id must be in 1.." + Short.MAX_VALUE + ": " + id);
+        }
+        Class<?> previous = typesById.putIfAbsent((short) id, type);
+        if (previous != null && previous != type) {
+            throw new IllegalArgumentException("type id " + id + " is already registered for " + previous.getName());
+        }
+        idsByType.put(type, (short) id);
+        return this;
+    }
+
+    Short idOf(Class<?> type) {
+        return idsByType.get(type);
+    }
+
+    Class<?> typeOf(short id) {
+        return typesById.get(id);
+    }
+}
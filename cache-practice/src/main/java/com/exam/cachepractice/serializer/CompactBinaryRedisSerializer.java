@@ -0,0 +1,139 @@
+package com.exam.cachepractice.serializer;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4FastDecompressor;
+import org.springframework.cache.support.NullValue;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * 캐시 값 바이너리 직렬화: 타입 ID + Smile(바이너리 JSON) + 선택적 LZ4 압축.
+ *
+ * 레이아웃:
+ *   [flags 1B][type id 2B][(압축 시) 원본 길이 4B][payload]
+ *   - flags bit0: LZ4 압축 여부
+ *   - type id: 0 = null 캐시 값(NullValue), 그 외 = CacheTypeRegistry ID
+ *     (Redis 값에서 클래스 이름을 읽어 로딩하지 않음 → 등록된 타입만 직렬화/역직렬화)
+ *
+ * - Smile: 필드 이름/숫자를 바이너리로 인코딩 → JSON 텍스트보다 작고 파싱이 빠름
+ * - LZ4: payload가 compressionThreshold보다 크고, 압축 결과가 실제로 더 작을 때만 적용
+ *   (작은 값은 압축 헤더 때문에 오히려 커지고 CPU만 씀)
+ */
+public class CompactBinaryRedisSerializer implements RedisSerializer<Object> {
+
+    private static final byte FLAG_LZ4 = 0x01;
+    private static final short NULL_VALUE_ID = 0;
+
+    private static final LZ4Compressor COMPRESSOR = LZ4Factory.fastestInstance().fastCompressor();
+    private static final LZ4FastDecompressor DECOMPRESSOR = LZ4Factory.fastestInstance().fastDecompressor();
+
+    private final ObjectMapper smileMapper;
+    private final CacheTypeRegistry typeRegistry;
+    private final int compressionThreshold;
+
+    /**
+     * @param compressionThreshold 이 바이트 수를 넘는 payload만 LZ4 압축 (0 이하면 압축 안 함)
+     */
+    public CompactBinaryRedisSerializer(CacheTypeRegistry typeRegistry, int compressionThreshold) {
+        this.typeRegistry = typeRegistry;
+        this.compressionThreshold = compressionThreshold;
+        // 엔티티처럼 setter 없는 클래스도 필드로 직접 읽고 씀
+        this.smileMapper = new ObjectMapper(new SmileFactory())
+                .setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.NONE)
+                .setVisibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY)
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof NullValue) {
+            return ByteBuffer.allocate(3).put((byte) 0).putShort(NULL_VALUE_ID).array();
+        }
+
+        byte[] typeHeader = typeHeader(value.getClass());
+        byte[] payload;
+        try {
+            payload = smileMapper.writeValueAsBytes(value);
+        } catch (IOException e) {
+            throw new SerializationException("Could not write cache value: " + value.getClass().getName(), e);
+        }
+
+        byte flags = 0;
+        int originalLength = payload.length;
+        if (compressionThreshold > 0 && payload.length > compressionThreshold) {
+            byte[] compressed = compress(payload);
+            if (compressed.length + Integer.BYTES < payload.length) {
+                payload = compressed;
+                flags |= FLAG_LZ4;
+            }
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(1 + typeHeader.length
+                + ((flags & FLAG_LZ4) != 0 ? Integer.BYTES : 0) + payload.length);
+        buffer.put(flags).put(typeHeader);
+        if ((flags & FLAG_LZ4) != 0) {
+            buffer.putInt(originalLength);
+        }
+        return buffer.put(payload).array();
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        byte flags = buffer.get();
+        short typeId = buffer.getShort();
+        if (typeId == NULL_VALUE_ID) {
+            return NullValue.INSTANCE;
+        }
+
+        Class<?> type = typeRegistry.typeOf(typeId);
+        if (type == null) {
+            throw new SerializationException("Unknown cache type id: " + typeId);
+        }
+
+        byte[] payload;
+        if ((flags & FLAG_LZ4) != 0) {
+            int originalLength = buffer.getInt();
+            payload = new byte[originalLength];
+            DECOMPRESSOR.decompress(bytes, buffer.position(), payload, 0, originalLength);
+        } else {
+            payload = Arrays.copyOfRange(bytes, buffer.position(), bytes.length);
+        }
+
+        try {
+            return smileMapper.readValue(payload, type);
+        } catch (IOException e) {
+            throw new SerializationException("Could not read cache value: " + type.getName(), e);
+        }
+    }
+
+    private byte[] typeHeader(Class<?> type) {
+        Short id = typeRegistry.idOf(type);
+        if (id != null) {
+            return ByteBuffer.allocate(2).putShort(id).array();
+        }
+        throw new SerializationException("Unregistered cache type: " + type.getName() + " (register it in CacheTypeRegistry)");
+    }
+
+    private static byte[] compress(byte[] payload) {
+        byte[] buffer = new byte[COMPRESSOR.maxCompressedLength(payload.length)];
+        int length = COMPRESSOR.compress(payload, 0, payload.length, buffer, 0, buffer.length);
+        return Arrays.copyOf(buffer, length);
+    }
+}
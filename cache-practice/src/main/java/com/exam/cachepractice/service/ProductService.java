@@ -1,6 +1,8 @@
 package com.exam.cachepractice.service;
 
+import com.exam.cachepractice.cache.CacheBatchLoader;
 import com.exam.cachepractice.domain.Product;
+import com.exam.cachepractice.domain.ProductSnapshot;
 import com.exam.cachepractice.repository.ProductRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -10,24 +12,57 @@ import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class ProductService {
 
     private final ProductRepository productRepository;
+    private final CacheBatchLoader cacheBatchLoader;
 
     // 1. Look Aside 패턴
     // 캐시에 있으면 리턴, 없으면 DB 조회 후 캐시 저장
-    // key: "products::1" (cacheNames::key)
-    @Cacheable(cacheNames = "products", key = "#id")
+    // key: "products:bin:v2::1" (CacheConfig에서 products 캐시 prefix를 바이너리 형식용으로 지정)
+    // 캐시 값은 엔티티가 아닌 불변 ProductSnapshot → 호출자가 수정해도 L1에 공유된 값이 바뀌지 않음
+    // sync = true: 같은 키 동시 Miss는 1번만 로드 + 만료 전 조기 갱신 (CacheConfig의 "products" 정책)
+    @Cacheable(cacheNames = "products", key = "#id", sync = true)
+    @Transactional(readOnly = true)
+    public ProductSnapshot getProduct(Long id) {
+        return loadProduct(id);
+    }
+
+    // 1-0. 캐시를 거치지 않는 원본 조회
+    // XFetch 조기 갱신이 백그라운드 스레드에서 프록시를 통해 호출 (CacheConfig) → 트랜잭션이 그대로 적용됨
     @Transactional(readOnly = true)
-    public Product getProduct(Long id) {
+    public ProductSnapshot loadProduct(Long id) {
         log.info("Fetching product from DB... id={}", id);
         return productRepository.findById(id)
+                .map(ProductSnapshot::from)
                 .orElseThrow(() -> new IllegalArgumentException("Product not found"));
     }
 
+    // 1-1. 다건 Look Aside (목록 페이지)
+    // getProduct를 N번 부르면 Redis GET N번 + DB 조회 최대 N번
+    // → MGET 1번, 없는 상품만 findAllById(IN 쿼리) 1번, 파이프라인 SET 1번 (getProduct와 같은 캐시 항목 공유)
+    // 반환 순서는 ids 순서, 존재하지 않는 상품은 빠짐
+    public List<ProductSnapshot> getProducts(Collection<Long> ids) {
+        Map<Long, ProductSnapshot> products = cacheBatchLoader.getAll("products", ids, missingIds -> {
+            log.info("Fetching products from DB... ids={}", missingIds);
+            return productRepository.findAllById(missingIds).stream()
+                    .collect(Collectors.toMap(Product::getId, ProductSnapshot::from));
+        });
+        return ids.stream()
+                .map(products::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
     // 2. Cache Eviction (삭제)
     // 데이터가 수정되면 캐시 데이터는 낡은 데이터(Stale Data)가 되므로 삭제해야 함
     @CacheEvict(cacheNames = "products", key = "#id")
@@ -41,15 +76,15 @@ public class ProductService {
 
     // 3. Cache Put (갱신)
     // 캐시를 삭제하지 않고, 수정된 값으로 바로 덮어씌움 (DB 조회 없이 캐시 갱신)
-    // 주의: 리턴 타입이 캐시에 저장될 타입과 같아야 함
+    // 주의: 리턴 타입이 캐시에 저장될 타입과 같아야 함 (영속 엔티티가 아닌 스냅샷을 반환)
     @CachePut(cacheNames = "products", key = "#id")
     @Transactional
-    public Product updateProductAndRefreshCache(Long id, String name, Long price) {
+    public ProductSnapshot updateProductAndRefreshCache(Long id, String name, Long price) {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Product not found"));
         product.update(name, price);
         log.info("Product updated in DB. Cache refreshed. id={}", id);
-        return product;
+        return ProductSnapshot.from(product);
     }
     
     @Transactional
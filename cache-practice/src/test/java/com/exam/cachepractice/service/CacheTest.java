@@ -1,18 +1,43 @@
 package com.exam.cachepractice.service;
 
+import com.exam.cachepractice.cache.CacheLoadPolicy;
+import com.exam.cachepractice.cache.StampedeProtectedCache;
+import com.exam.cachepractice.cache.TwoLevelCache;
+import com.exam.cachepractice.cache.TwoLevelCacheManager;
 import com.exam.cachepractice.domain.Product;
+import com.exam.cachepractice.domain.ProductSnapshot;
 import com.exam.cachepractice.repository.ProductRepository;
+import com.exam.cachepractice.serializer.CompactBinaryRedisSerializer;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.*;
 
 @SpringBootTest
@@ -27,6 +52,12 @@ class CacheTest {
     @Autowired
     private CacheManager cacheManager;
 
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Autowired
+    private CompactBinaryRedisSerializer compactBinaryRedisSerializer;
+
     private Long productId;
 
     @BeforeEach
@@ -54,7 +85,7 @@ class CacheTest {
 
         // 2. 두 번째 조회 (DB 조회 X, 캐시 Hit)
         System.out.println("=== 2nd Call ===");
-        Product cachedProduct = productService.getProduct(productId);
+        ProductSnapshot cachedProduct = productService.getProduct(productId);
         verify(productRepository, times(1)).findById(productId); // 호출 횟수가 여전히 1이어야 함
 
         assertThat(cachedProduct.getName()).isEqualTo("Test Product");
@@ -72,10 +103,227 @@ class CacheTest {
 
         // 3. 다시 조회 (DB 조회 발생해야 함)
         System.out.println("=== 3rd Call ===");
-        Product updatedProduct = productService.getProduct(productId);
+        ProductSnapshot updatedProduct = productService.getProduct(productId);
         
         // 총 3번 조회되어야 함 (처음 1번 + 수정 시 1번 + 수정 후 1번)
         verify(productRepository, times(3)).findById(productId);
         assertThat(updatedProduct.getName()).isEqualTo("Updated Name");
     }
+
+    @Test
+    @DisplayName("L1 캐시: 한 번 조회한 상품은 Redis/DB 접근 없이 로컬(L1)에서 조회되어야 한다")
+    void localCacheHitTest() {
+        productService.getProduct(productId);
+        TwoLevelCache cache = twoLevelCache("products");
+        assertThat(cache.isCachedLocally(productId)).isTrue();
+
+        // L2(Redis) 항목을 직접 지워도 L1 Hit → Redis를 거치지 않음
+        stringRedisTemplate.delete("products:bin:v2::" + productId);
+        for (int i = 0; i < 1_000; i++) {
+            assertThat(productService.getProduct(productId)).isNotNull();
+        }
+
+        assertThat(cache.isCachedLocally(productId)).isTrue();
+        assertThat(stringRedisTemplate.hasKey("products:bin:v2::" + productId)).isFalse(); // L2를 다시 채우지도 않음
+        verify(productRepository, times(1)).findById(productId);
+
+        // L1은 참조를 그대로 공유 → 영속 엔티티가 아닌 불변 스냅샷이 들어 있어야 함
+        assertThat(cache.get(productId).get()).isInstanceOf(ProductSnapshot.class);
+    }
+
+    @Test
+    @DisplayName("L1 무효화: 다른 노드가 상품을 변경하면 내 L1만 지워지고 다음 조회는 L2(Redis)에서 가져와야 한다")
+    void localCacheInvalidationTest() throws InterruptedException {
+        productService.getProduct(productId);
+        TwoLevelCache cache = twoLevelCache("products");
+        assertThat(cache.isCachedLocally(productId)).isTrue();
+
+        // 다른 노드의 @CacheEvict/@CachePut이 보내는 메시지
+        stringRedisTemplate.convertAndSend(TwoLevelCacheManager.INVALIDATION_CHANNEL,
+                "other-node|products|E|" + productId);
+
+        for (int i = 0; i < 20 && cache.isCachedLocally(productId); i++) {
+            Thread.sleep(100);
+        }
+        assertThat(cache.isCachedLocally(productId)).isFalse();
+
+        // L2에는 남아 있으므로 DB 조회 없이 L1을 다시 채움
+        Cache.ValueWrapper fromRemote = cache.get(productId);
+        assertThat(fromRemote).isNotNull();
+        assertThat(cache.isCachedLocally(productId)).isTrue();
+        verify(productRepository, times(1)).findById(productId);
+    }
+
+    @Test
+    @DisplayName("Single-Flight: 캐시가 비어 있을 때 20명이 동시에 조회해도 DB 조회는 1번이어야 한다")
+    void singleFlightTest() throws InterruptedException {
+        Product product = productRepository.findById(productId).orElseThrow();
+        reset(productRepository);
+        doAnswer(invocation -> {
+            Thread.sleep(200); // 느린 DB 조회 → 그 사이 나머지 요청이 모두 Miss
+            return Optional.of(product);
+        }).when(productRepository).findById(productId);
+
+        int threadCount = 20;
+        ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch ready = new CountDownLatch(threadCount);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threadCount);
+        AtomicInteger successCount = new AtomicInteger();
+
+        for (int i = 0; i < threadCount; i++) {
+            executorService.submit(() -> {
+                try {
+                    ready.countDown();
+                    start.await();
+                    if (productService.getProduct(productId) != null) {
+                        successCount.incrementAndGet();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        ready.await();
+        start.countDown();
+        done.await();
+
+        assertThat(successCount.get()).isEqualTo(threadCount);
+        verify(productRepository, times(1)).findById(productId);
+    }
+
+    @Test
+    @DisplayName("XFetch: 자주 조회되는 키는 TTL이 끝나기 전에 정책의 refreshLoader로 백그라운드에서 다시 로드되어야 한다")
+    void refreshAheadTest() throws InterruptedException {
+        Duration ttl = Duration.ofMillis(1000);
+        AtomicInteger loadCount = new AtomicInteger();
+        AtomicInteger callerLoads = new AtomicInteger();
+        StampedeProtectedCache cache = new StampedeProtectedCache(new ConcurrentMapCache("xfetch"),
+                CacheLoadPolicy.refreshAhead(1.0, key -> slowLoad(loadCount)), ttl, 100, Runnable::run);
+        Callable<String> loader = () -> {
+            callerLoads.incrementAndGet();
+            return slowLoad(loadCount);
+        };
+
+        long loadedAt = System.currentTimeMillis();
+        assertThat(cache.get("hot", loader)).isEqualTo("value-1");
+
+        // 만료(약 1000ms) 전까지 10ms 간격으로 조회 → 만료가 가까워질수록 조기 갱신 확률 증가
+        while (loadCount.get() < 2 && System.currentTimeMillis() - loadedAt < ttl.toMillis()) {
+            assertThat(cache.get("hot", loader)).startsWith("value-");
+            Thread.sleep(10);
+        }
+
+        assertThat(loadCount.get()).isGreaterThanOrEqualTo(2);
+        // 호출자의 valueLoader는 첫 Miss에서만 실행 (조기 갱신은 refreshLoader)
+        assertThat(callerLoads.get()).isEqualTo(1);
+    }
+
+    // delta = 300ms인 느린 원본 조회
+    private static String slowLoad(AtomicInteger loadCount) {
+        try {
+            Thread.sleep(300);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return "value-" + loadCount.incrementAndGet();
+    }
+
+    @Test
+    @DisplayName("다건 조회: 없는 상품만 findAllById 1번으로 읽고, 다음 조회와 단건 조회는 캐시에서 가져와야 한다")
+    void bulkGetTest() throws InterruptedException {
+        Long secondId = productService.createProduct("Second", 2000L).getId();
+        Long thirdId = productService.createProduct("Third", 3000L).getId();
+        Long missingId = -1L;
+        productService.getProduct(productId); // 1개는 이미 캐시에 있음
+        reset(productRepository);
+
+        List<ProductSnapshot> products = productService.getProducts(List.of(thirdId, productId, missingId, secondId));
+        assertThat(products).extracting(ProductSnapshot::getId).containsExactly(thirdId, productId, secondId);
+        verify(productRepository, times(1)).findAllById(argThat(ids -> {
+            List<Long> requested = new ArrayList<>();
+            ids.forEach(requested::add);
+            return requested.size() == 3 && !requested.contains(productId);
+        }));
+
+        // L1에서 지워져도 L2(MGET)에서 찾음 → DB 조회 없음
+        TwoLevelCache cache = twoLevelCache("products");
+        stringRedisTemplate.convertAndSend(TwoLevelCacheManager.INVALIDATION_CHANNEL,
+                "other-node|products|E|" + secondId);
+        for (int i = 0; i < 20 && cache.isCachedLocally(secondId); i++) {
+            Thread.sleep(100);
+        }
+        assertThat(cache.isCachedLocally(secondId)).isFalse();
+        assertThat(productService.getProducts(List.of(productId, secondId, thirdId)))
+                .extracting(ProductSnapshot::getName).containsExactly("Test Product", "Second", "Third");
+        verify(productRepository, times(1)).findAllById(any());
+
+        // 단건 @Cacheable과 같은 캐시 항목을 공유
+        productService.getProduct(thirdId);
+        verify(productRepository, never()).findById(thirdId);
+
+        // 다건 채우기는 SET NX: DB를 읽은 뒤 먼저 저장된 새 값(@CachePut)을 오래된 값으로 덮어쓰지 않음
+        cache.put(thirdId, new ProductSnapshot(thirdId, "Third (updated)", 3100L));
+        cache.putAllIfAbsent(Map.of(thirdId, new ProductSnapshot(thirdId, "Third", 3000L)));
+        ProductSnapshot inRedis = (ProductSnapshot) compactBinaryRedisSerializer.deserialize(
+                stringRedisTemplate.execute((RedisCallback<byte[]>) connection ->
+                        connection.stringCommands().get(("products:bin:v2::" + thirdId).getBytes(StandardCharsets.UTF_8))));
+        assertThat(inRedis.getName()).isEqualTo("Third (updated)");
+        assertThat(((ProductSnapshot) cache.get(thirdId).get()).getName()).isEqualTo("Third (updated)");
+    }
+
+    @Test
+    @DisplayName("바이너리 직렬화: JSON보다 작고, 큰 값은 LZ4로 압축되며, 미등록 타입은 거부해야 한다")
+    void compactSerializerBenchmarkTest() {
+        RedisSerializer<Object> json = new GenericJackson2JsonRedisSerializer();
+        ProductSnapshot small = new ProductSnapshot(1L, "Test Product", 1000L);
+        ProductSnapshot large = new ProductSnapshot(2L, "Test Product ".repeat(100), 1000L); // 약 1.3KB
+
+        for (ProductSnapshot product : new ProductSnapshot[]{small, large}) {
+            ProductSnapshot restored = (ProductSnapshot) compactBinaryRedisSerializer.deserialize(compactBinaryRedisSerializer.serialize(product));
+            assertThat(restored.getName()).isEqualTo(product.getName());
+            assertThat(restored.getPrice()).isEqualTo(product.getPrice());
+
+            int jsonBytes = json.serialize(product).length;
+            int binaryBytes = compactBinaryRedisSerializer.serialize(product).length;
+            long jsonNanos = roundTripNanos(json, product);
+            long binaryNanos = roundTripNanos(compactBinaryRedisSerializer, product);
+            // 속도는 실행 환경에 따라 흔들리므로 출력만 (판정은 크기로)
+            System.out.printf("JSON: %dB %dns/op, Binary: %dB %dns/op%n", jsonBytes, jsonNanos, binaryBytes, binaryNanos);
+
+            assertThat(binaryBytes).isLessThan(jsonBytes);
+        }
+
+        // 반복되는 이름 → LZ4로 원본 Smile payload보다 훨씬 작아짐
+        assertThat(compactBinaryRedisSerializer.serialize(large).length).isLessThan(large.getName().length() / 4);
+
+        // 미등록 타입: 쓰기는 거부, Redis 값에 든 알 수 없는 ID도 클래스 로딩 없이 거부
+        assertThatThrownBy(() -> compactBinaryRedisSerializer.serialize(new ArrayList<>(List.of(small))))
+                .isInstanceOf(SerializationException.class);
+        byte[] forged = ByteBuffer.allocate(3).put((byte) 0).putShort((short) 999).array();
+        assertThatThrownBy(() -> compactBinaryRedisSerializer.deserialize(forged))
+                .isInstanceOf(SerializationException.class);
+    }
+
+    // 직렬화 + 역직렬화 1회 평균 (JIT 워밍업 후 측정)
+    private static long roundTripNanos(RedisSerializer<Object> serializer, Object value) {
+        for (int i = 0; i < 20_000; i++) {
+            serializer.deserialize(serializer.serialize(value));
+        }
+        int iterations = 100_000;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            serializer.deserialize(serializer.serialize(value));
+        }
+        return (System.nanoTime() - start) / iterations;
+    }
+
+    private TwoLevelCache twoLevelCache(String name) {
+        Cache cache = cacheManager.getCache(name);
+        return cache instanceof StampedeProtectedCache decorated
+                ? (TwoLevelCache) decorated.getDelegate()
+                : (TwoLevelCache) cache;
+    }
 }
@@ -0,0 +1,173 @@
+package com.exam.lock.benchmark;
+
+import com.exam.lock.LockApplication;
+import com.exam.lock.domain.Stock;
+import com.exam.lock.repository.StockRepository;
+import com.exam.lock.service.CoalescingStockService;
+import com.exam.lock.service.ConditionalUpdateStockService;
+import com.exam.lock.service.OptimisticLockStockFacade;
+import com.exam.lock.service.PessimisticLockStockService;
+import com.exam.lock.service.RedissonLockStockService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.redisson.api.RScript;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 재고 차감 전략별 처리량 / 지연 시간 벤치마크.
+ *
+ * 실행: ./gradlew :lock:jmh -PjmhThreads=1 (8, 32 ...)
+ *   - Throughput: ops/ms
+ *   - SampleTime: 지연 분포 (p0.99 = p99)
+ *
+ * 파라미터:
+ *   - strategy        : 차감 전략
+ *   - products        : 재고 행 수 (핫 상품 후보)
+ *                       1이면 contentionRatio와 상관없이 모든 요청이 한 행에 몰려 contentionRatio=1.0과 같은 측정
+ *                       → 기본값에서 제외 (단일 행 경합은 contentionRatio=1.0으로 본다)
+ *   - contentionRatio : 요청 중 1번 상품(가장 핫한 상품)으로 몰리는 비율
+ *                       1.0 = 모든 요청이 한 행에 경합, 0.0 = products개 행에 고르게 분산
+ *
+ * H2(인메모리) + 내장 Redis로 실행되므로 외부 인프라 없이 돌아간다.
+ * 절대값보다 같은 조건에서의 전략 간 비율을 본다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class StockLockBenchmark {
+
+    // redis-deep-dive의 RedisStockCacheRepository.DECREASE_STOCK_SCRIPT와 같은 로직
+    private static final String LUA_DECREASE_SCRIPT = """
+            local stock = tonumber(redis.call('GET', KEYS[1]))
+            if stock == nil then
+                return -2
+            end
+            if stock < tonumber(ARGV[1]) then
+                return -1
+            end
+            return redis.call('DECRBY', KEYS[1], ARGV[1])
+            """;
+    private static final String LUA_KEY_PREFIX = "benchmark:stock:";
+
+    // 벤치마크 중 재고가 바닥나지 않도록 충분히 큰 값
+    private static final long INITIAL_QUANTITY = 1_000_000_000L;
+
+    @Param({"pessimistic", "optimistic", "conditional", "coalescing", "redisson", "lua"})
+    public String strategy;
+
+    @Param({"16"})
+    public int products;
+
+    @Param({"1.0", "0.5", "0.0"})
+    public double contentionRatio;
+
+    private RedisServer redisServer;
+    private ConfigurableApplicationContext context;
+
+    private PessimisticLockStockService pessimisticLockStockService;
+    private OptimisticLockStockFacade optimisticLockStockFacade;
+    private ConditionalUpdateStockService conditionalUpdateStockService;
+    private CoalescingStockService coalescingStockService;
+    private RedissonLockStockService redissonLockStockService;
+    private RScript script;
+    private String luaScriptSha;
+
+    private final List<Long> stockIds = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        int redisPort = freePort();
+        redisServer = new RedisServer(redisPort);
+        redisServer.start();
+
+        context = new SpringApplicationBuilder(LockApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.data.redis.port=" + redisPort,
+                        "spring.jpa.properties.hibernate.show_sql=false",
+                        "spring.jpa.properties.hibernate.format_sql=false",
+                        "logging.level.root=WARN")
+                .run();
+
+        pessimisticLockStockService = context.getBean(PessimisticLockStockService.class);
+        optimisticLockStockFacade = context.getBean(OptimisticLockStockFacade.class);
+        conditionalUpdateStockService = context.getBean(ConditionalUpdateStockService.class);
+        coalescingStockService = context.getBean(CoalescingStockService.class);
+        redissonLockStockService = context.getBean(RedissonLockStockService.class);
+
+        StockRepository stockRepository = context.getBean(StockRepository.class);
+        RedissonClient redissonClient = context.getBean(RedissonClient.class);
+        script = redissonClient.getScript(StringCodec.INSTANCE);
+        luaScriptSha = script.scriptLoad(LUA_DECREASE_SCRIPT);
+
+        for (long productId = 1; productId <= products; productId++) {
+            Long stockId = stockRepository.save(new Stock(productId, INITIAL_QUANTITY)).getId();
+            stockIds.add(stockId);
+            redissonClient.getBucket(LUA_KEY_PREFIX + stockId, StringCodec.INSTANCE)
+                    .set(String.valueOf(INITIAL_QUANTITY));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        if (context != null) {
+            context.close();
+        }
+        if (redisServer != null) {
+            redisServer.stop();
+        }
+    }
+
+    @Benchmark
+    public Object decrease() throws Exception {
+        Long stockId = pickStock();
+        switch (strategy) {
+            case "pessimistic" -> pessimisticLockStockService.decrease(stockId, 1L);
+            case "optimistic" -> optimisticLockStockFacade.decrease(stockId, 1L);
+            case "conditional" -> conditionalUpdateStockService.decrease(stockId, 1L);
+            case "coalescing" -> coalescingStockService.decrease(stockId, 1L).join();
+            case "redisson" -> redissonLockStockService.decrease(stockId, 1L);
+            case "lua" -> {
+                return script.evalSha(RScript.Mode.READ_WRITE, luaScriptSha, RScript.ReturnType.INTEGER,
+                        List.<Object>of(LUA_KEY_PREFIX + stockId), "1");
+            }
+            default -> throw new IllegalArgumentException("unknown strategy: " + strategy);
+        }
+        return stockId;
+    }
+
+    // contentionRatio 확률로 1번 상품, 나머지는 전체 상품 중 무작위
+    private Long pickStock() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (products == 1 || random.nextDouble() < contentionRatio) {
+            return stockIds.get(0);
+        }
+        return stockIds.get(random.nextInt(products));
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -2,7 +2,9 @@ package com.exam.lock;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
+@EnableScheduling // DeadlockMonitor 주기 감지
 @SpringBootApplication
 public class LockApplication {
 
@@ -3,6 +3,8 @@ package com.exam.lock.controller;
 import com.exam.lock.deadlock.DeadlockDemo;
 import com.exam.lock.domain.Stock;
 import com.exam.lock.repository.StockRepository;
+import com.exam.lock.service.CoalescingStockService;
+import com.exam.lock.service.ConditionalUpdateStockService;
 import com.exam.lock.service.OptimisticLockStockFacade;
 import com.exam.lock.service.PessimisticLockStockService;
 import com.exam.lock.service.RedissonLockStockService;
@@ -17,6 +19,8 @@ public class StockController {
     private final PessimisticLockStockService pessimisticLockStockService;
     private final OptimisticLockStockFacade optimisticLockStockFacade; // Service -> Facade 변경
     private final RedissonLockStockService redissonLockStockService;
+    private final CoalescingStockService coalescingStockService;
+    private final ConditionalUpdateStockService conditionalUpdateStockService;
     private final DeadlockDemo deadlockDemo;
 
     // 초기 재고 생성
@@ -47,6 +51,20 @@ public class StockController {
         return "Redisson Lock Decrease Success";
     }
 
+    // 조건부 UPDATE 테스트 (엔티티 조회 없이 UPDATE 1번)
+    @PostMapping("/stocks/{id}/decrease/conditional")
+    public String decreaseConditional(@PathVariable Long id, @RequestParam Long quantity) {
+        conditionalUpdateStockService.decrease(id, quantity);
+        return "Conditional Update Decrease Success";
+    }
+
+    // 요청 합치기 테스트 (같은 재고의 동시 요청을 트랜잭션 1번에 반영)
+    @PostMapping("/stocks/{id}/decrease/coalescing")
+    public String decreaseCoalescing(@PathVariable Long id, @RequestParam Long quantity) {
+        coalescingStockService.decrease(id, quantity).join(); // 배치 커밋까지 대기
+        return "Coalescing Decrease Success";
+    }
+
     // 데드락 테스트
     @GetMapping("/deadlock")
     public String triggerDeadlock() {
@@ -1,40 +1,55 @@
 package com.exam.lock.deadlock;
 
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
 @Component
+@RequiredArgsConstructor
 public class DeadlockDemo {
 
+    private final LockOrderTracker lockOrderTracker;
+
     private final Object resource1 = new Object();
     private final Object resource2 = new Object();
 
     public void triggerDeadlock() {
         Thread t1 = new Thread(() -> {
+            lockOrderTracker.beforeLock("resource1");
             synchronized (resource1) {
                 System.out.println("Thread 1: Locked resource 1");
 
                 try { Thread.sleep(100); } catch (Exception ignored) {}
 
                 System.out.println("Thread 1: Waiting for resource 2...");
+                lockOrderTracker.beforeLock("resource2");
                 synchronized (resource2) {
                     System.out.println("Thread 1: Locked resource 2");
                 }
+                lockOrderTracker.afterUnlock("resource2");
             }
-        });
+            lockOrderTracker.afterUnlock("resource1");
+        }, "deadlock-demo-1");
 
         Thread t2 = new Thread(() -> {
+            lockOrderTracker.beforeLock("resource2");
             synchronized (resource2) {
                 System.out.println("Thread 2: Locked resource 2");
 
                 try { Thread.sleep(100); } catch (Exception ignored) {}
 
                 System.out.println("Thread 2: Waiting for resource 1...");
+                lockOrderTracker.beforeLock("resource1"); // resource1 → resource2 순서와 반대 → 역전 경고
                 synchronized (resource1) {
                     System.out.println("Thread 2: Locked resource 1");
                 }
+                lockOrderTracker.afterUnlock("resource1");
             }
-        });
+            lockOrderTracker.afterUnlock("resource2");
+        }, "deadlock-demo-2");
 
+        // 데드락 스레드는 영원히 끝나지 않으므로 데몬으로 만들어 애플리케이션 종료를 막지 않게 함
+        t1.setDaemon(true);
+        t2.setDaemon(true);
         t1.start();
         t2.start();
     }
@@ -0,0 +1,31 @@
+package com.exam.lock.deadlock;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * GET /actuator/deadlocks
+ * - deadlock: 지금 바로 감지한 JVM 데드락 (대기 그래프 + 스택)
+ * - inversions: 지금까지 관찰된 락 순서 역전 (아직 멈추지 않은 잠재적 데드락)
+ */
+@Component
+@Endpoint(id = "deadlocks")
+@RequiredArgsConstructor
+public class DeadlockEndpoint {
+
+    private final DeadlockMonitor deadlockMonitor;
+    private final LockOrderTracker lockOrderTracker;
+
+    @ReadOperation
+    public DeadlockStatus deadlocks() {
+        return new DeadlockStatus(deadlockMonitor.check(), lockOrderTracker.getInversions());
+    }
+
+    public record DeadlockStatus(DeadlockMonitor.DeadlockReport deadlock,
+                                 List<LockOrderTracker.LockOrderInversion> inversions) {
+    }
+}
@@ -0,0 +1,130 @@
+package com.exam.lock.deadlock;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.LockInfo;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MonitorInfo;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * JVM 데드락 주기 감지.
+ *
+ * ThreadMXBean.findDeadlockedThreads(): synchronized 모니터 + ReentrantLock 등 Ownable Synchronizer의 순환 대기를 찾는다.
+ * 감지되면 "누가 무엇을 기다리고, 그 락은 누가 들고 있는지" 그래프와 각 스레드의 스택을 남긴다.
+ *   → 손으로 스레드 덤프를 뜨지 않아도 /actuator/deadlocks와 로그로 확인 가능
+ *
+ * - 메트릭: lock.deadlock.threads (Gauge, 현재 데드락에 걸린 스레드 수)
+ * - 같은 데드락은 한 번만 ERROR 로그 (데드락 스레드는 스스로 풀리지 않으므로 매 주기 반복 로그 방지)
+ * - DB 데드락(Row Lock 순환)은 JVM 밖이라 감지 대상이 아님 → DB가 한쪽 트랜잭션을 롤백시킴
+ */
+@Slf4j
+@Component
+public class DeadlockMonitor {
+
+    private static final int MAX_STACK_DEPTH = 20;
+
+    private final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+
+    private volatile DeadlockReport lastReport = DeadlockReport.none();
+    private volatile Set<Long> reportedThreadIds = Set.of();
+
+    public DeadlockMonitor(MeterRegistry meterRegistry) {
+        meterRegistry.gauge("lock.deadlock.threads", this, monitor -> monitor.lastReport.threads().size());
+    }
+
+    @Scheduled(fixedDelayString = "${lock.deadlock-monitor.interval-millis:5000}")
+    public DeadlockReport check() {
+        long[] threadIds = threadMXBean.findDeadlockedThreads();
+        if (threadIds == null) {
+            lastReport = DeadlockReport.none();
+            reportedThreadIds = Set.of();
+            return lastReport;
+        }
+
+        ThreadInfo[] infos = threadMXBean.getThreadInfo(threadIds,
+                threadMXBean.isObjectMonitorUsageSupported(), threadMXBean.isSynchronizerUsageSupported());
+        List<DeadlockedThread> threads = new ArrayList<>();
+        for (ThreadInfo info : infos) {
+            if (info != null) {
+                threads.add(DeadlockedThread.from(info));
+            }
+        }
+        lastReport = new DeadlockReport(System.currentTimeMillis(), threads);
+
+        Set<Long> ids = Arrays.stream(threadIds).boxed().collect(Collectors.toSet());
+        if (!ids.equals(reportedThreadIds)) {
+            reportedThreadIds = ids;
+            log.error("데드락 감지 - {}", lastReport.describe());
+        }
+        return lastReport;
+    }
+
+    public DeadlockReport getLastReport() {
+        return lastReport;
+    }
+
+    /**
+     * @param detectedAtMillis 감지 시각 (데드락이 없으면 0)
+     */
+    public record DeadlockReport(long detectedAtMillis, List<DeadlockedThread> threads) {
+
+        public static DeadlockReport none() {
+            return new DeadlockReport(0, List.of());
+        }
+
+        public boolean isDeadlocked() {
+            return !threads.isEmpty();
+        }
+
+        // "Thread-1 --(waits java.lang.Object@1b2c)--> Thread-2" 형태의 대기 그래프
+        String describe() {
+            return threads.stream()
+                    .map(thread -> thread.threadName() + " --(waits " + thread.waitingFor() + ")--> " + thread.lockOwnerName())
+                    .collect(Collectors.joining(", "));
+        }
+    }
+
+    /**
+     * @param waitingFor    기다리는 락 (클래스명@identityHashCode)
+     * @param lockOwnerName 그 락을 들고 있는 스레드
+     * @param heldLocks     이 스레드가 들고 있는 락 (synchronized 모니터 + ReentrantLock 등)
+     * @param stackTrace    상위 MAX_STACK_DEPTH개 프레임
+     */
+    public record DeadlockedThread(long threadId, String threadName, String state,
+                                   String waitingFor, Long lockOwnerId, String lockOwnerName,
+                                   List<String> heldLocks, List<String> stackTrace) {
+
+        static DeadlockedThread from(ThreadInfo info) {
+            List<String> held = new ArrayList<>();
+            for (MonitorInfo monitor : info.getLockedMonitors()) {
+                held.add(monitor.toString());
+            }
+            for (LockInfo synchronizer : info.getLockedSynchronizers()) {
+                held.add(synchronizer.toString());
+            }
+            List<String> stack = Arrays.stream(info.getStackTrace())
+                    .limit(MAX_STACK_DEPTH)
+                    .map(StackTraceElement::toString)
+                    .toList();
+            return new DeadlockedThread(
+                    info.getThreadId(),
+                    info.getThreadName(),
+                    info.getThreadState().name(),
+                    info.getLockName(),
+                    info.getLockOwnerId() == -1 ? null : info.getLockOwnerId(),
+                    info.getLockOwnerName(),
+                    held,
+                    stack);
+        }
+    }
+}
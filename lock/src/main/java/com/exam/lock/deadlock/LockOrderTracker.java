@@ -0,0 +1,85 @@
+package com.exam.lock.deadlock;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * 런타임 락 획득 순서 추적 → 순서 역전(Lock Order Inversion) 경고.
+ *
+ * 데드락의 필요조건은 "순환 대기"다. 실제로 멈추기 전에도 아래 패턴이 한 번이라도 보이면 잠재적 데드락이다.
+ *   스레드 A: resource1 보유 → resource2 획득 (간선 resource1 → resource2)
+ *   스레드 B: resource2 보유 → resource1 획득 (간선 resource2 → resource1) ← 역전!
+ *
+ * 사용법: 락을 잡기 직전 beforeLock(name), 놓은 직후 afterUnlock(name).
+ *   synchronized / ReentrantLock / DB 락 등 어떤 락이든 이름만 일관되면 추적 가능.
+ *
+ * 간선은 (보유 중인 락 → 새로 잡는 락) 쌍만 기록하므로 락 이름 수의 제곱을 넘지 않는다.
+ * 직접 역전(A→B, B→A)만 검사하고, 3개 이상이 얽힌 순환은 DeadlockMonitor가 실제 발생 시 잡는다.
+ */
+@Slf4j
+@Component
+public class LockOrderTracker {
+
+    private static final int MAX_INVERSIONS = 100;
+
+    private final ThreadLocal<Deque<String>> heldLocks = ThreadLocal.withInitial(ArrayDeque::new);
+    private final Map<String, Set<String>> edges = new ConcurrentHashMap<>();
+    private final List<LockOrderInversion> inversions = new CopyOnWriteArrayList<>();
+    private final Counter inversionCounter;
+
+    public LockOrderTracker(MeterRegistry meterRegistry) {
+        this.inversionCounter = Counter.builder("lock.order.inversions")
+                .description("Lock acquisitions in the reverse order of an earlier acquisition")
+                .register(meterRegistry);
+    }
+
+    public void beforeLock(String lockName) {
+        Deque<String> held = heldLocks.get();
+        for (String heldLock : held) {
+            if (heldLock.equals(lockName)) {
+                continue; // 재진입
+            }
+            boolean newEdge = edges.computeIfAbsent(heldLock, key -> ConcurrentHashMap.newKeySet()).add(lockName);
+            if (newEdge && edges.getOrDefault(lockName, Set.of()).contains(heldLock)) {
+                recordInversion(heldLock, lockName);
+            }
+        }
+        held.push(lockName);
+    }
+
+    public void afterUnlock(String lockName) {
+        Deque<String> held = heldLocks.get();
+        held.removeFirstOccurrence(lockName);
+        if (held.isEmpty()) {
+            heldLocks.remove();
+        }
+    }
+
+    public List<LockOrderInversion> getInversions() {
+        return List.copyOf(inversions);
+    }
+
+    private void recordInversion(String heldLock, String acquiringLock) {
+        inversionCounter.increment();
+        LockOrderInversion inversion = new LockOrderInversion(
+                heldLock, acquiringLock, Thread.currentThread().getName(), System.currentTimeMillis());
+        if (inversions.size() < MAX_INVERSIONS) {
+            inversions.add(inversion);
+        }
+        log.warn("락 순서 역전 감지 - {} 보유 중 {} 획득 시도 (다른 곳에서는 {} → {} 순서), thread: {}",
+                heldLock, acquiringLock, acquiringLock, heldLock, inversion.threadName());
+    }
+
+    public record LockOrderInversion(String heldLock, String acquiringLock, String threadName, long detectedAtMillis) {
+    }
+}
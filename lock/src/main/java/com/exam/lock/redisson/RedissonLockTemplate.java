@@ -0,0 +1,158 @@
+package com.exam.lock.redisson;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * 분산 락 → 트랜잭션 → 커밋 → 락 해제 순서를 보장하는 템플릿.
+ *
+ * 1. leaseTime 없이 tryLock → Redisson watchdog이 lockWatchdogTimeout(기본 30초)의 1/3마다 자동 연장
+ *    - 고정 lease(1초)는 작업이 길어지면 락이 먼저 풀려 두 작업이 겹치고,
+ *      작업이 짧아도 unlock 전까지는 어차피 잡고 있으므로 얻는 것이 없음
+ *    - 서버가 죽으면 연장이 멈춰 watchdog 타임아웃 후 자동 해제
+ * 2. 락 안에서 새 트랜잭션 시작 (REQUIRES_NEW → 바깥 트랜잭션에 묶이지 않음)
+ * 3. TransactionSynchronization.afterCompletion에서 해제 → 커밋(또는 롤백)이 끝난 뒤에만 다음 대기자가 진입
+ *    (트랜잭션 밖에서 unlock하면 커밋 전에 다른 요청이 변경 전 값을 읽을 수 있음)
+ *
+ * 메트릭 (name 태그 = 락 이름, ID는 태그로 쓰지 않음):
+ * - redisson.lock.hold         : 락 보유 시간
+ * - redisson.lock.lease.overrun: 보유 시간이 max-hold-millis를 넘은 횟수 (고정 lease였다면 락이 풀렸을 작업)
+ * - redisson.lock.lost         : 해제 시점에 이미 락을 잃은 횟수 (watchdog 연장 실패 등)
+ */
+@Slf4j
+@Component
+public class RedissonLockTemplate {
+
+    private final RedissonClient redissonClient;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final long waitMillis;
+    private final long maxHoldMillis;
+
+    // 락 이름별 Meter (해제마다 builder.register()로 조회하지 않도록 캐시)
+    private final Map<String, LockMeters> metersByName = new ConcurrentHashMap<>();
+
+    public RedissonLockTemplate(RedissonClient redissonClient,
+                                PlatformTransactionManager transactionManager,
+                                MeterRegistry meterRegistry,
+                                @Value("${stock.redisson.lock.wait-millis:10000}") long waitMillis,
+                                @Value("${stock.redisson.lock.max-hold-millis:1000}") long maxHoldMillis) {
+        this.redissonClient = redissonClient;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.meterRegistry = meterRegistry;
+        this.waitMillis = waitMillis;
+        this.maxHoldMillis = maxHoldMillis;
+    }
+
+    /**
+     * 락(name_id)을 잡고 새 트랜잭션에서 action 실행. 트랜잭션이 끝난 뒤 락 해제.
+     *
+     * @param name 락 이름 (메트릭 태그)
+     * @param id   락 대상 ID
+     */
+    public <T> T execute(String name, Object id, Supplier<T> action) {
+        RLock lock = redissonClient.getLock(name + "_" + id);
+
+        boolean acquired;
+        try {
+            // leaseTime 생략 → watchdog 자동 연장
+            acquired = lock.tryLock(waitMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+        if (!acquired) {
+            throw new RuntimeException("락 획득 실패: " + name + "_" + id);
+        }
+
+        LockRelease release = new LockRelease(lock, meters(name), System.nanoTime());
+        try {
+            return transactionTemplate.execute(status -> {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int completionStatus) {
+                        release.run();
+                    }
+                });
+                return action.get();
+            });
+        } finally {
+            // 트랜잭션 시작 자체가 실패해 afterCompletion이 호출되지 않은 경우
+            release.run();
+        }
+    }
+
+    private LockMeters meters(String name) {
+        return metersByName.computeIfAbsent(name, key -> new LockMeters(
+                Timer.builder("redisson.lock.hold")
+                        .description("Time a Redisson lock was held until after transaction completion")
+                        .tag("name", key)
+                        .register(meterRegistry),
+                Counter.builder("redisson.lock.lease.overrun")
+                        .description("Locks held longer than max-hold-millis")
+                        .tag("name", key)
+                        .register(meterRegistry),
+                Counter.builder("redisson.lock.lost")
+                        .description("Locks no longer held at release time")
+                        .tag("name", key)
+                        .register(meterRegistry)
+        ));
+    }
+
+    private record LockMeters(Timer hold, Counter leaseOverrun, Counter lost) {
+    }
+
+    private class LockRelease implements Runnable {
+
+        private final RLock lock;
+        private final LockMeters meters;
+        private final long acquiredNanos;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        LockRelease(RLock lock, LockMeters meters, long acquiredNanos) {
+            this.lock = lock;
+            this.meters = meters;
+            this.acquiredNanos = acquiredNanos;
+        }
+
+        @Override
+        public void run() {
+            if (!released.compareAndSet(false, true)) {
+                return;
+            }
+
+            long heldNanos = System.nanoTime() - acquiredNanos;
+            meters.hold().record(heldNanos, TimeUnit.NANOSECONDS);
+            if (TimeUnit.NANOSECONDS.toMillis(heldNanos) > maxHoldMillis) {
+                meters.leaseOverrun().increment();
+                log.warn("락 보유 시간 초과 - lock: {}, held: {}ms", lock.getName(), TimeUnit.NANOSECONDS.toMillis(heldNanos));
+            }
+
+            try {
+                lock.unlock();
+            } catch (IllegalMonitorStateException e) {
+                // watchdog 연장 실패(Redis 장애 등)로 이미 락을 잃음 → 다른 작업과 겹쳤을 수 있음
+                meters.lost().increment();
+                log.warn("락을 이미 잃었습니다 - lock: {}", lock.getName());
+            }
+        }
+    }
+}
@@ -4,6 +4,7 @@ import com.exam.lock.domain.Stock;
 import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
@@ -22,4 +23,11 @@ public interface StockRepository extends JpaRepository<Stock, Long> {
     @Lock(LockModeType.OPTIMISTIC)
     @Query("select s from Stock s where s.id = :id")
     Optional<Stock> findByIdWithOptimisticLock(@Param("id") Long id);
+
+    // 조건부 UPDATE (엔티티 조회 없이 1번 왕복)
+    // UPDATE stock SET quantity = quantity - ? WHERE id = ? AND quantity >= ?
+    // 재고가 부족하면 0 rows → 호출 측에서 실패 처리 / version 컬럼은 증가시키지 않음
+    @Modifying(clearAutomatically = true)
+    @Query("update Stock s set s.quantity = s.quantity - :quantity where s.id = :id and s.quantity >= :quantity")
+    int decreaseIfAvailable(@Param("id") Long id, @Param("quantity") Long quantity);
 }
@@ -0,0 +1,124 @@
+package com.exam.lock.retry;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 상품(재고 ID)별 충돌 상태: 재시도 예산 + 충돌률.
+ *
+ * 1. 재시도 예산 (Retry Budget)
+ *    - 요청 1건마다 ratio만큼 토큰 적립 (최대 maxTokens), 재시도 1번마다 토큰 1개 사용
+ *    - ratio = 0.2 → 장기적으로 재시도는 요청의 20%까지만 허용
+ *    - 토큰이 없으면 재시도하지 않고 비관적 락으로 전환 → 재시도 폭주(Retry Storm) 차단
+ *
+ * 2. 충돌률 (EWMA: 지수 가중 이동 평균)
+ *    - 시도마다 충돌=1, 성공=0을 반영: rate = alpha * sample + (1 - alpha) * rate
+ *    - threshold를 넘으면 cooldown 동안 이 상품은 처음부터 비관적 락 사용
+ *    - cooldown이 지나면 충돌률을 초기화하고 다시 낙관적 락 시도
+ */
+@Component
+public class ContentionTracker {
+
+    private final double budgetRatio;
+    private final double maxTokens;
+    private final double alpha;
+    private final double threshold;
+    private final long cooldownMillis;
+
+    private final Map<Long, State> states = new ConcurrentHashMap<>();
+
+    public ContentionTracker(@Value("${stock.optimistic.budget.ratio:0.2}") double budgetRatio,
+                             @Value("${stock.optimistic.budget.max-tokens:20}") double maxTokens,
+                             @Value("${stock.optimistic.escalation.alpha:0.2}") double alpha,
+                             @Value("${stock.optimistic.escalation.threshold:0.5}") double threshold,
+                             @Value("${stock.optimistic.escalation.cooldown-millis:1000}") long cooldownMillis) {
+        this.budgetRatio = budgetRatio;
+        this.maxTokens = maxTokens;
+        this.alpha = alpha;
+        this.threshold = threshold;
+        this.cooldownMillis = cooldownMillis;
+    }
+
+    /**
+     * 요청 시작: 예산 적립 후, 이 상품이 비관적 락 구간인지 반환.
+     */
+    public boolean onRequest(Long id) {
+        State state = state(id);
+        synchronized (state) {
+            state.tokens = Math.min(maxTokens, state.tokens + budgetRatio);
+            if (state.escalatedUntil == 0) {
+                return false;
+            }
+            if (System.currentTimeMillis() < state.escalatedUntil) {
+                return true;
+            }
+            // cooldown 종료 → 다시 낙관적 락
+            state.escalatedUntil = 0;
+            state.conflictRate = 0;
+            return false;
+        }
+    }
+
+    public void onSuccess(Long id) {
+        State state = state(id);
+        synchronized (state) {
+            state.conflictRate = (1 - alpha) * state.conflictRate;
+        }
+    }
+
+    /**
+     * 충돌 반영. 충돌률이 임계치를 넘었으면 true (이 상품을 비관적 락 구간으로 전환).
+     */
+    public boolean onConflict(Long id) {
+        State state = state(id);
+        synchronized (state) {
+            state.conflictRate = alpha + (1 - alpha) * state.conflictRate;
+            if (state.conflictRate < threshold) {
+                return false;
+            }
+            state.escalatedUntil = System.currentTimeMillis() + cooldownMillis;
+            return true;
+        }
+    }
+
+    /**
+     * 재시도 토큰 1개 사용. 예산이 없으면 false.
+     */
+    public boolean tryAcquireRetry(Long id) {
+        State state = state(id);
+        synchronized (state) {
+            if (state.tokens < 1) {
+                return false;
+            }
+            state.tokens -= 1;
+            return true;
+        }
+    }
+
+    public double getConflictRate(Long id) {
+        State state = states.get(id);
+        if (state == null) {
+            return 0;
+        }
+        synchronized (state) {
+            return state.conflictRate;
+        }
+    }
+
+    private State state(Long id) {
+        return states.computeIfAbsent(id, key -> new State(maxTokens));
+    }
+
+    private static class State {
+        private double tokens;
+        private double conflictRate;
+        private long escalatedUntil;
+
+        State(double tokens) {
+            this.tokens = tokens;
+        }
+    }
+}
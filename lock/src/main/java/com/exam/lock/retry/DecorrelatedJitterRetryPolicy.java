@@ -0,0 +1,40 @@
+package com.exam.lock.retry;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 지수 백오프 + Decorrelated Jitter.
+ *
+ *   sleep = min(cap, random(base, previous * 3)),  첫 재시도는 previous = base
+ *
+ * 고정 50ms 대기는 충돌한 스레드들이 같은 시각에 다시 깨어나 또 충돌한다 (라이브락과 같은 모양).
+ * 직전 대기 시간을 기준으로 무작위 구간을 잡으면 재시도 시각이 흩어지고, 충돌이 이어질수록 간격도 늘어난다.
+ * 첫 재시도도 random(base, 3 * base)로 흩어야 한다 (base 고정이면 같은 라운드에 충돌한 스레드가 동시에 깨어남).
+ */
+public class DecorrelatedJitterRetryPolicy implements RetryPolicy {
+
+    private final long baseMillis;
+    private final long capMillis;
+    private final int maxAttempts;
+
+    public DecorrelatedJitterRetryPolicy(long baseMillis, long capMillis, int maxAttempts) {
+        this.baseMillis = baseMillis;
+        this.capMillis = capMillis;
+        this.maxAttempts = maxAttempts;
+    }
+
+    @Override
+    public int maxAttempts() {
+        return maxAttempts;
+    }
+
+    @Override
+    public long backoffMillis(int attempt, long previousBackoffMillis) {
+        long previous = previousBackoffMillis > 0 ? previousBackoffMillis : baseMillis;
+        long upper = Math.max(baseMillis, previous * 3);
+        long next = upper == baseMillis
+                ? baseMillis // base가 0인 경우만
+                : ThreadLocalRandom.current().nextLong(baseMillis, upper + 1);
+        return Math.min(capMillis, next);
+    }
+}
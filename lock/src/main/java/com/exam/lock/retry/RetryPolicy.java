@@ -0,0 +1,22 @@
+package com.exam.lock.retry;
+
+/**
+ * 낙관적 락 충돌 시 재시도 간격 정책.
+ *
+ * 구현체를 @Bean으로 등록하면 기본 정책(DecorrelatedJitterRetryPolicy) 대신 사용된다.
+ */
+public interface RetryPolicy {
+
+    /**
+     * 최대 시도 횟수 (첫 시도 포함). 넘으면 비관적 락으로 전환.
+     */
+    int maxAttempts();
+
+    /**
+     * 다음 재시도까지 대기 시간.
+     *
+     * @param attempt              지금까지 실패한 시도 횟수 (1부터)
+     * @param previousBackoffMillis 직전 대기 시간 (첫 재시도면 0)
+     */
+    long backoffMillis(int attempt, long previousBackoffMillis);
+}
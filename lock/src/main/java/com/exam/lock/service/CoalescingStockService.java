@@ -0,0 +1,157 @@
+package com.exam.lock.service;
+
+import com.exam.lock.domain.Stock;
+import com.exam.lock.repository.StockRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 요청 합치기(Request Coalescing) 재고 차감.
+ *
+ * 기존 전략은 요청 1건 = 트랜잭션 1번이라, 같은 상품 1000건이면 Row Lock도 1000번 순서대로 잡는다.
+ * 이 서비스는 같은 재고 ID의 요청을 큐에 모았다가 트랜잭션 1번에 묶어서 반영한다.
+ *
+ * 동작:
+ * 1. decrease()는 요청을 재고별 큐에 넣고 CompletableFuture를 즉시 반환
+ * 2. 재고별로 드레인 작업이 최대 1개만 실행 (다른 재고는 워커 풀에서 병렬 처리)
+ * 3. 드레인: 큐에서 최대 maxBatchSize건을 꺼내 SELECT ... FOR UPDATE 1번 → 도착 순서대로 차감 → 커밋 1번
+ *    - 재고를 음수로 만드는 요청만 거절 (나머지는 정상 반영)
+ * 4. 커밋된 뒤에 각 요청의 Future 완료 (거절된 요청은 "재고 부족" 예외로 완료)
+ *
+ * 배치 크기는 부하에 따라 저절로 정해진다:
+ *   트랜잭션이 커밋되는 동안 쌓인 요청이 다음 배치가 됨 → 한가할 때는 1건, 몰릴 때는 수백 건
+ */
+@Slf4j
+@Service
+public class CoalescingStockService {
+
+    private final StockRepository stockRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxBatchSize;
+    private final ExecutorService workers;
+
+    private final Map<Long, StockQueue> queues = new ConcurrentHashMap<>();
+
+    public CoalescingStockService(StockRepository stockRepository,
+                                  TransactionTemplate transactionTemplate,
+                                  @Value("${stock.coalescing.max-batch-size:200}") int maxBatchSize,
+                                  @Value("${stock.coalescing.workers:4}") int workerCount) {
+        this.stockRepository = stockRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.maxBatchSize = maxBatchSize;
+        this.workers = Executors.newFixedThreadPool(workerCount);
+    }
+
+    /**
+     * 재고 차감 요청. 반환된 Future는 요청이 포함된 배치가 커밋되면 완료된다.
+     */
+    public CompletableFuture<Void> decrease(Long id, Long quantity) {
+        PendingDecrease request = new PendingDecrease(quantity, new CompletableFuture<>());
+        StockQueue queue = queues.computeIfAbsent(id, StockQueue::new);
+        queue.requests.add(request);
+        scheduleDrain(queue);
+        return request.future();
+    }
+
+    /**
+     * 해당 재고에 대해 실행된 배치 트랜잭션 수 (요청 수보다 작을수록 많이 합쳐진 것)
+     */
+    public long getBatchCount(Long id) {
+        StockQueue queue = queues.get(id);
+        return queue == null ? 0 : queue.batches.get();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        workers.shutdown();
+    }
+
+    private void scheduleDrain(StockQueue queue) {
+        // 이미 드레인 중이면 그 작업이 이 요청까지 가져감
+        if (queue.draining.compareAndSet(false, true)) {
+            workers.execute(() -> drain(queue));
+        }
+    }
+
+    private void drain(StockQueue queue) {
+        try {
+            List<PendingDecrease> batch;
+            while (!(batch = poll(queue)).isEmpty()) {
+                queue.batches.incrementAndGet();
+                applyBatch(queue.stockId, batch);
+            }
+        } finally {
+            queue.draining.set(false);
+        }
+        // 플래그를 내리기 직전에 들어온 요청이 있으면 다시 예약 (요청 유실 방지)
+        if (!queue.requests.isEmpty()) {
+            scheduleDrain(queue);
+        }
+    }
+
+    private List<PendingDecrease> poll(StockQueue queue) {
+        List<PendingDecrease> batch = new ArrayList<>();
+        PendingDecrease request;
+        while (batch.size() < maxBatchSize && (request = queue.requests.poll()) != null) {
+            batch.add(request);
+        }
+        return batch;
+    }
+
+    private void applyBatch(Long stockId, List<PendingDecrease> batch) {
+        List<PendingDecrease> accepted = new ArrayList<>();
+        List<PendingDecrease> rejected = new ArrayList<>();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                // 배치당 Row Lock 1번 (다른 서버/전략과 함께 써도 정합성 유지)
+                Stock stock = stockRepository.findByIdWithPessimisticLock(stockId).orElseThrow();
+                for (PendingDecrease request : batch) {
+                    if (stock.getQuantity() >= request.quantity()) {
+                        stock.decrease(request.quantity());
+                        accepted.add(request);
+                    } else {
+                        rejected.add(request);
+                    }
+                }
+            });
+        } catch (RuntimeException e) {
+            // 트랜잭션 자체가 실패 → 배치 전체 실패
+            log.warn("재고 배치 차감 실패 - stockId: {}, size: {}", stockId, batch.size(), e);
+            batch.forEach(request -> request.future().completeExceptionally(e));
+            return;
+        }
+
+        accepted.forEach(request -> request.future().complete(null));
+        rejected.forEach(request -> request.future().completeExceptionally(new RuntimeException("재고 부족")));
+        log.debug("재고 배치 차감 - stockId: {}, accepted: {}, rejected: {}", stockId, accepted.size(), rejected.size());
+    }
+
+    private record PendingDecrease(Long quantity, CompletableFuture<Void> future) {
+    }
+
+    private static class StockQueue {
+        private final Long stockId;
+        private final Queue<PendingDecrease> requests = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicLong batches = new AtomicLong();
+
+        StockQueue(Long stockId) {
+            this.stockId = stockId;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.exam.lock.service;
+
+import com.exam.lock.repository.StockRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+@RequiredArgsConstructor
+public class ConditionalUpdateStockService {
+
+    private final StockRepository stockRepository;
+
+    @Transactional
+    public void decrease(Long id, Long quantity) {
+        // SELECT 없이 UPDATE 1번: 차감과 재고 검사를 DB가 한 문장으로 처리
+        // 같은 행의 UPDATE는 DB가 Row Lock으로 직렬화하므로 별도 락이 필요 없음
+        int updated = stockRepository.decreaseIfAvailable(id, quantity);
+
+        if (updated == 0) {
+            throw new RuntimeException("재고 부족");
+        }
+    }
+}
@@ -1,27 +1,123 @@
 package com.exam.lock.service;
 
-import lombok.RequiredArgsConstructor;
+import com.exam.lock.retry.ContentionTracker;
+import com.exam.lock.retry.DecorrelatedJitterRetryPolicy;
+import com.exam.lock.retry.RetryPolicy;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Component;
 
+/**
+ * 낙관적 락 + 재시도 + 비관적 락 전환.
+ *
+ * 1. 충돌 시 RetryPolicy(기본: 지수 백오프 + Decorrelated Jitter) 간격으로 재시도
+ * 2. 아래 경우에는 재시도를 멈추고 비관적 락으로 처리 (무한 재시도 없음)
+ *    - 최대 시도 횟수 초과
+ *    - 상품별 재시도 예산 소진
+ *    - 상품별 충돌률이 임계치 초과 → cooldown 동안은 처음부터 비관적 락
+ *
+ * 메트릭:
+ * - stock.optimistic.conflicts                : 버전 충돌 횟수
+ * - stock.optimistic.retries                  : 재시도 횟수
+ * - stock.optimistic.escalations{reason}      : 비관적 락 전환 (conflict-rate / budget / max-attempts)
+ *   → conflicts 대비 escalations가 늘기 시작하는 지점이 낙관적 → 비관적 전환점
+ */
+@Slf4j
 @Component
-@RequiredArgsConstructor
 public class OptimisticLockStockFacade {
 
     private final OptimisticLockStockService optimisticLockStockService;
+    private final PessimisticLockStockService pessimisticLockStockService;
+    private final RetryPolicy retryPolicy;
+    private final ContentionTracker contentionTracker;
+
+    private final Counter conflicts;
+    private final Counter retries;
+    private final Counter conflictRateEscalations;
+    private final Counter budgetEscalations;
+    private final Counter maxAttemptsEscalations;
+
+    public OptimisticLockStockFacade(OptimisticLockStockService optimisticLockStockService,
+                                     PessimisticLockStockService pessimisticLockStockService,
+                                     ObjectProvider<RetryPolicy> retryPolicyProvider,
+                                     ContentionTracker contentionTracker,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${stock.optimistic.retry.base-millis:10}") long baseMillis,
+                                     @Value("${stock.optimistic.retry.cap-millis:500}") long capMillis,
+                                     @Value("${stock.optimistic.retry.max-attempts:10}") int maxAttempts) {
+        this.optimisticLockStockService = optimisticLockStockService;
+        this.pessimisticLockStockService = pessimisticLockStockService;
+        // 다른 RetryPolicy 빈을 등록하면 그것을 사용, 없으면 기본 정책
+        this.retryPolicy = retryPolicyProvider.getIfAvailable(
+                () -> new DecorrelatedJitterRetryPolicy(baseMillis, capMillis, maxAttempts));
+        this.contentionTracker = contentionTracker;
+
+        this.conflicts = Counter.builder("stock.optimistic.conflicts")
+                .description("Optimistic lock version conflicts")
+                .register(meterRegistry);
+        this.retries = Counter.builder("stock.optimistic.retries")
+                .description("Optimistic lock retries after backoff")
+                .register(meterRegistry);
+        this.conflictRateEscalations = escalationCounter(meterRegistry, "conflict-rate");
+        this.budgetEscalations = escalationCounter(meterRegistry, "budget");
+        this.maxAttemptsEscalations = escalationCounter(meterRegistry, "max-attempts");
+    }
 
     public void decrease(Long id, Long quantity) throws InterruptedException {
-        while (true) {
+        if (contentionTracker.onRequest(id)) {
+            // 충돌이 잦은 상품 → 재시도 없이 바로 비관적 락
+            conflictRateEscalations.increment();
+            pessimisticLockStockService.decrease(id, quantity);
+            return;
+        }
+
+        long backoffMillis = 0;
+        for (int attempt = 1; ; attempt++) {
             try {
                 // 프록시를 통해 호출하므로 @Transactional이 정상 동작함
                 optimisticLockStockService.decrease(id, quantity);
-                
-                // 성공하면 루프 종료
-                break;
+                contentionTracker.onSuccess(id);
+                return;
             } catch (ObjectOptimisticLockingFailureException e) {
-                // 충돌 발생 시 50ms 대기 후 재시도
-                Thread.sleep(50);
+                conflicts.increment();
+
+                Counter escalation = escalationReason(id, attempt);
+                if (escalation != null) {
+                    escalation.increment();
+                    log.debug("비관적 락으로 전환 - id: {}, attempt: {}", id, attempt);
+                    pessimisticLockStockService.decrease(id, quantity);
+                    return;
+                }
+
+                retries.increment();
+                backoffMillis = retryPolicy.backoffMillis(attempt, backoffMillis);
+                Thread.sleep(backoffMillis);
             }
         }
     }
+
+    // 재시도하면 안 되는 이유 (재시도 가능하면 null)
+    private Counter escalationReason(Long id, int attempt) {
+        if (contentionTracker.onConflict(id)) {
+            return conflictRateEscalations;
+        }
+        if (attempt >= retryPolicy.maxAttempts()) {
+            return maxAttemptsEscalations;
+        }
+        if (!contentionTracker.tryAcquireRetry(id)) {
+            return budgetEscalations;
+        }
+        return null;
+    }
+
+    private static Counter escalationCounter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("stock.optimistic.escalations")
+                .description("Requests escalated from optimistic to pessimistic locking")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
 }
@@ -1,17 +1,28 @@
 package com.exam.lock.service;
 
+import com.exam.lock.deadlock.DeadlockDemo;
+import com.exam.lock.deadlock.DeadlockMonitor;
+import com.exam.lock.deadlock.LockOrderTracker;
 import com.exam.lock.domain.Stock;
+import com.exam.lock.redisson.RedissonLockTemplate;
 import com.exam.lock.repository.StockRepository;
+import com.exam.lock.retry.DecorrelatedJitterRetryPolicy;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -27,9 +38,30 @@ class StockConcurrencyTest {
     @Autowired
     private RedissonLockStockService redissonLockStockService;
 
+    @Autowired
+    private RedissonLockTemplate redissonLockTemplate;
+
+    @Autowired
+    private ConditionalUpdateStockService conditionalUpdateStockService;
+
+    @Autowired
+    private CoalescingStockService coalescingStockService;
+
     @Autowired
     private StockRepository stockRepository;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private DeadlockDemo deadlockDemo;
+
+    @Autowired
+    private DeadlockMonitor deadlockMonitor;
+
+    @Autowired
+    private LockOrderTracker lockOrderTracker;
+
     private Long stockId;
 
     @BeforeEach
@@ -96,6 +128,52 @@ class StockConcurrencyTest {
         System.out.println("낙관적 락 테스트 성공: 남은 재고 = " + stock.getQuantity());
     }
 
+    @Test
+    @DisplayName("낙관적 락 재시도: 충돌이 몰리면 재시도 대신 비관적 락으로 전환되고 재고는 정확해야 한다")
+    void optimisticLockEscalationTest() throws InterruptedException {
+        double conflictsBefore = meterRegistry.counter("stock.optimistic.conflicts").count();
+        double retriesBefore = meterRegistry.counter("stock.optimistic.retries").count();
+        double escalationsBefore = escalationCount();
+
+        int threadCount = 100;
+        ExecutorService executorService = Executors.newFixedThreadPool(32);
+        CountDownLatch latch = new CountDownLatch(threadCount);
+
+        for (int i = 0; i < threadCount; i++) {
+            executorService.submit(() -> {
+                try {
+                    optimisticLockStockFacade.decrease(stockId, 1L);
+                } catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                } finally {
+                    latch.countDown();
+                }
+            });
+        }
+
+        latch.await();
+
+        Stock stock = stockRepository.findById(stockId).orElseThrow();
+        assertThat(stock.getQuantity()).isEqualTo(0L);
+
+        double conflicts = meterRegistry.counter("stock.optimistic.conflicts").count() - conflictsBefore;
+        double retries = meterRegistry.counter("stock.optimistic.retries").count() - retriesBefore;
+        double escalations = escalationCount() - escalationsBefore;
+        System.out.printf("충돌: %.0f, 재시도: %.0f, 비관적 락 전환: %.0f%n", conflicts, retries, escalations);
+
+        // 32개 스레드가 같은 행을 수정 → 충돌은 반드시 발생하고, 일부는 비관적 락으로 전환됨
+        assertThat(conflicts).isPositive();
+        assertThat(escalations).isPositive();
+        // 재시도 예산: 재시도는 요청 수의 ratio(0.2) + 초기 토큰(20)을 넘지 않음
+        assertThat(retries).isLessThanOrEqualTo(threadCount * 0.2 + 20);
+    }
+
+    private double escalationCount() {
+        return meterRegistry.find("stock.optimistic.escalations").counters().stream()
+                .mapToDouble(counter -> counter.count())
+                .sum();
+    }
+
     @Test
     @DisplayName("Redisson 분산 락: 100명이 동시에 1개씩 주문하면 재고가 0이 되어야 한다")
     void redissonLockTest() throws InterruptedException {
@@ -119,4 +197,266 @@ class StockConcurrencyTest {
         assertThat(stock.getQuantity()).isEqualTo(0L);
         System.out.println("Redisson 락 테스트 성공: 남은 재고 = " + stock.getQuantity());
     }
+
+    @Test
+    @DisplayName("Redisson 락 템플릿: 작업이 1초를 넘겨도 watchdog이 락을 유지해 두 작업이 겹치지 않아야 한다")
+    void redissonWatchdogTest() throws InterruptedException {
+        double overrunBefore = meterRegistry.counter("redisson.lock.lease.overrun", "name", "watchdog_test").count();
+        int threadCount = 2;
+        ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch latch = new CountDownLatch(threadCount);
+        AtomicInteger inside = new AtomicInteger();
+        AtomicInteger maxInside = new AtomicInteger();
+        AtomicInteger transactional = new AtomicInteger();
+
+        for (int i = 0; i < threadCount; i++) {
+            executorService.submit(() -> {
+                try {
+                    redissonLockTemplate.execute("watchdog_test", stockId, () -> {
+                        maxInside.accumulateAndGet(inside.incrementAndGet(), Math::max);
+                        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                            transactional.incrementAndGet(); // 락 안에서 트랜잭션이 시작됨
+                        }
+                        try {
+                            Thread.sleep(1500); // 기존 고정 lease(1초)보다 긴 작업
+                        } catch (InterruptedException e) {
+                            throw new RuntimeException(e);
+                        }
+                        inside.decrementAndGet();
+                        return null;
+                    });
+                } finally {
+                    latch.countDown();
+                }
+            });
+        }
+
+        latch.await();
+
+        assertThat(maxInside.get()).isEqualTo(1);
+        assertThat(transactional.get()).isEqualTo(threadCount);
+        double overrun = meterRegistry.counter("redisson.lock.lease.overrun", "name", "watchdog_test").count() - overrunBefore;
+        assertThat(overrun).isEqualTo(threadCount);
+    }
+
+    @Test
+    @DisplayName("조건부 UPDATE: 100명이 동시에 1개씩 주문하면 재고가 0이 되고 version은 그대로여야 한다")
+    void conditionalUpdateTest() throws InterruptedException {
+        Long versionBefore = stockRepository.findById(stockId).orElseThrow().getVersion();
+        int threadCount = 100;
+        ExecutorService executorService = Executors.newFixedThreadPool(32);
+        CountDownLatch latch = new CountDownLatch(threadCount);
+
+        for (int i = 0; i < threadCount; i++) {
+            executorService.submit(() -> {
+                try {
+                    conditionalUpdateStockService.decrease(stockId, 1L);
+                } finally {
+                    latch.countDown();
+                }
+            });
+        }
+
+        latch.await();
+
+        Stock stock = stockRepository.findById(stockId).orElseThrow();
+        assertThat(stock.getQuantity()).isEqualTo(0L);
+        assertThat(stock.getVersion()).isEqualTo(versionBefore);
+        System.out.println("조건부 UPDATE 테스트 성공: 남은 재고 = " + stock.getQuantity());
+    }
+
+    @Test
+    @DisplayName("조건부 UPDATE: 재고 100개에 150명이 주문해도 재고가 음수가 되지 않아야 한다")
+    void conditionalUpdateOversellTest() throws InterruptedException {
+        int threadCount = 150;
+        ExecutorService executorService = Executors.newFixedThreadPool(32);
+        CountDownLatch latch = new CountDownLatch(threadCount);
+        AtomicInteger successCount = new AtomicInteger();
+
+        for (int i = 0; i < threadCount; i++) {
+            executorService.submit(() -> {
+                try {
+                    conditionalUpdateStockService.decrease(stockId, 1L);
+                    successCount.incrementAndGet();
+                } catch (RuntimeException e) {
+                    // WHERE quantity >= 1 조건에 걸려 0 rows → 재고 부족
+                } finally {
+                    latch.countDown();
+                }
+            });
+        }
+
+        latch.await();
+
+        Stock stock = stockRepository.findById(stockId).orElseThrow();
+        assertThat(stock.getQuantity()).isEqualTo(0L);
+        assertThat(successCount.get()).isEqualTo(100);
+    }
+
+    @Test
+    @DisplayName("요청 합치기: 100명이 동시에 1개씩 주문하면 재고가 0이 되어야 한다")
+    void coalescingTest() throws InterruptedException {
+        int threadCount = 100;
+        ExecutorService executorService = Executors.newFixedThreadPool(32);
+        CountDownLatch latch = new CountDownLatch(threadCount);
+
+        for (int i = 0; i < threadCount; i++) {
+            executorService.submit(() -> {
+                try {
+                    // 배치가 커밋될 때까지 대기
+                    coalescingStockService.decrease(stockId, 1L).join();
+                } finally {
+                    latch.countDown();
+                }
+            });
+        }
+
+        latch.await();
+
+        Stock stock = stockRepository.findById(stockId).orElseThrow();
+        assertThat(stock.getQuantity()).isEqualTo(0L);
+        System.out.println("요청 합치기 테스트 성공: 남은 재고 = " + stock.getQuantity());
+    }
+
+    @Test
+    @DisplayName("요청 합치기: 재고 100개에 150명이 주문하면 100명만 성공하고 50명만 거절되어야 한다")
+    void coalescingPartialFailureTest() throws InterruptedException {
+        int threadCount = 150;
+        ExecutorService executorService = Executors.newFixedThreadPool(32);
+        CountDownLatch latch = new CountDownLatch(threadCount);
+        AtomicInteger successCount = new AtomicInteger();
+        AtomicInteger rejectedCount = new AtomicInteger();
+
+        for (int i = 0; i < threadCount; i++) {
+            executorService.submit(() -> {
+                try {
+                    coalescingStockService.decrease(stockId, 1L).join();
+                    successCount.incrementAndGet();
+                } catch (CompletionException e) {
+                    // 같은 배치의 다른 요청은 반영되고, 재고를 음수로 만드는 요청만 거절됨
+                    rejectedCount.incrementAndGet();
+                } finally {
+                    latch.countDown();
+                }
+            });
+        }
+
+        latch.await();
+
+        Stock stock = stockRepository.findById(stockId).orElseThrow();
+        assertThat(stock.getQuantity()).isEqualTo(0L);
+        assertThat(successCount.get()).isEqualTo(100);
+        assertThat(rejectedCount.get()).isEqualTo(50);
+    }
+
+    @Test
+    @DisplayName("전략 비교: 같은 재고에 1000건이 몰릴 때 모든 전략이 정확히 차감하고, 요청 합치기는 요청보다 적은 트랜잭션으로 처리해야 한다")
+    void strategyComparisonTest() throws InterruptedException {
+        int requestCount = 1000;
+        Long pessimisticStockId = stockRepository.saveAndFlush(new Stock(2L, (long) requestCount)).getId();
+        Long conditionalStockId = stockRepository.saveAndFlush(new Stock(3L, (long) requestCount)).getId();
+        Long coalescingStockId = stockRepository.saveAndFlush(new Stock(4L, (long) requestCount)).getId();
+        Long optimisticStockId = stockRepository.saveAndFlush(new Stock(5L, (long) requestCount)).getId();
+        Long redissonStockId = stockRepository.saveAndFlush(new Stock(6L, (long) requestCount)).getId();
+
+        long pessimisticMillis = runConcurrently(requestCount,
+                () -> pessimisticLockStockService.decrease(pessimisticStockId, 1L));
+        long conditionalMillis = runConcurrently(requestCount,
+                () -> conditionalUpdateStockService.decrease(conditionalStockId, 1L));
+        long coalescingMillis = runConcurrently(requestCount,
+                () -> coalescingStockService.decrease(coalescingStockId, 1L).join());
+        long optimisticMillis = runConcurrently(requestCount, () -> {
+            try {
+                optimisticLockStockFacade.decrease(optimisticStockId, 1L);
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        long redissonMillis = runConcurrently(requestCount,
+                () -> redissonLockStockService.decrease(redissonStockId, 1L));
+
+        assertThat(stockRepository.findById(pessimisticStockId).orElseThrow().getQuantity()).isEqualTo(0L);
+        assertThat(stockRepository.findById(conditionalStockId).orElseThrow().getQuantity()).isEqualTo(0L);
+        assertThat(stockRepository.findById(coalescingStockId).orElseThrow().getQuantity()).isEqualTo(0L);
+        assertThat(stockRepository.findById(optimisticStockId).orElseThrow().getQuantity()).isEqualTo(0L);
+        assertThat(stockRepository.findById(redissonStockId).orElseThrow().getQuantity()).isEqualTo(0L);
+        long batchCount = coalescingStockService.getBatchCount(coalescingStockId);
+        // 동시에 대기 중인 요청이 한 트랜잭션에 묶임 (최대 max-batch-size건씩)
+        assertThat(batchCount).isLessThan(requestCount);
+        assertThat(batchCount).isGreaterThanOrEqualTo(requestCount / 200);
+        // 처리 시간은 환경에 따라 흔들리므로 참고용 출력만 (정확한 비교는 JMH 등 별도 벤치마크로)
+        System.out.println("비관적 락 (SELECT FOR UPDATE + UPDATE): " + pessimisticMillis + "ms");
+        System.out.println("낙관적 락 (재시도 + 비관적 락 전환): " + optimisticMillis + "ms");
+        System.out.println("Redisson 분산 락 (락 획득/해제 왕복 + 트랜잭션): " + redissonMillis + "ms");
+        System.out.println("조건부 UPDATE (UPDATE 1번): " + conditionalMillis + "ms");
+        System.out.println("요청 합치기 (배치 트랜잭션): " + coalescingMillis + "ms, 배치 " + batchCount + "번");
+    }
+
+    @Test
+    @DisplayName("데드락 감지: 두 스레드가 서로의 락을 기다리면 대기 그래프와 락 순서 역전이 보고되어야 한다")
+    void deadlockMonitorTest() throws InterruptedException {
+        deadlockDemo.triggerDeadlock();
+
+        DeadlockMonitor.DeadlockReport report = DeadlockMonitor.DeadlockReport.none();
+        for (int i = 0; i < 20 && !report.isDeadlocked(); i++) {
+            Thread.sleep(100);
+            report = deadlockMonitor.check();
+        }
+
+        assertThat(report.threads())
+                .extracting(DeadlockMonitor.DeadlockedThread::threadName)
+                .contains("deadlock-demo-1", "deadlock-demo-2");
+        // 서로가 서로의 락 소유자
+        assertThat(report.threads())
+                .filteredOn(thread -> thread.threadName().startsWith("deadlock-demo"))
+                .allSatisfy(thread -> {
+                    assertThat(thread.lockOwnerName()).startsWith("deadlock-demo");
+                    assertThat(thread.heldLocks()).isNotEmpty();
+                });
+        assertThat(meterRegistry.get("lock.deadlock.threads").gauge().value()).isGreaterThanOrEqualTo(2);
+        assertThat(lockOrderTracker.getInversions())
+                .anySatisfy(inversion -> assertThat(inversion.heldLock()).startsWith("resource"));
+    }
+
+    @Test
+    @DisplayName("Decorrelated Jitter: 같은 라운드에 충돌한 스레드의 첫 재시도 대기 시간도 base ~ 3*base로 흩어져야 한다")
+    void firstRetryBackoffIsSpreadTest() {
+        DecorrelatedJitterRetryPolicy policy = new DecorrelatedJitterRetryPolicy(10, 500, 10);
+
+        Set<Long> firstDelays = new HashSet<>();
+        for (int i = 0; i < 1_000; i++) {
+            long delay = policy.backoffMillis(1, 0);
+            assertThat(delay).isBetween(10L, 30L);
+            firstDelays.add(delay);
+        }
+        // 21개 값(10~30) 중 대부분이 나와야 함 → 모두 같은 시각에 깨어나지 않음
+        assertThat(firstDelays).hasSizeGreaterThan(10);
+
+        // cap을 넘지 않음
+        DecorrelatedJitterRetryPolicy capped = new DecorrelatedJitterRetryPolicy(10, 15, 10);
+        for (int i = 0; i < 1_000; i++) {
+            assertThat(capped.backoffMillis(1, 0)).isBetween(10L, 15L);
+        }
+    }
+
+    private long runConcurrently(int requestCount, Runnable task) throws InterruptedException {
+        ExecutorService executorService = Executors.newFixedThreadPool(32);
+        CountDownLatch latch = new CountDownLatch(requestCount);
+
+        long start = System.currentTimeMillis();
+        for (int i = 0; i < requestCount; i++) {
+            executorService.submit(() -> {
+                try {
+                    task.run();
+                } finally {
+                    latch.countDown();
+                }
+            });
+        }
+        latch.await();
+        long elapsed = System.currentTimeMillis() - start;
+
+        executorService.shutdown();
+        return elapsed;
+    }
 }
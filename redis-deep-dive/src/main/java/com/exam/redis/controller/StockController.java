@@ -0,0 +1,52 @@
+package com.exam.redis.controller;
+
+import com.exam.redis.stock.ReactiveRedisStockCacheRepository;
+import com.exam.redis.stock.RedisStockCacheRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+/**
+ * 블로킹 vs Reactive 재고 차감 비교용 API.
+ *
+ * 같은 부하(JMeter, wrk 등)를 두 엔드포인트에 보내고 스레드 수와 처리량을 비교한다.
+ * - /decrease          : 요청 스레드가 Redis 응답까지 블로킹
+ * - /decrease/reactive : Mono 반환 → 응답 대기 중 요청 스레드 반납
+ *
+ * 서블릿 스택(기본)에서는 Mono 반환이 Servlet Async로 처리되고,
+ * spring.main.web-application-type=reactive로 기동하면 Netty 이벤트 루프에서 처리된다.
+ */
+@RestController
+@RequiredArgsConstructor
+public class StockController {
+
+    private final RedisStockCacheRepository redisStockCacheRepository;
+    private final ReactiveRedisStockCacheRepository reactiveRedisStockCacheRepository;
+
+    // 재고 초기화
+    @PostMapping("/stocks/{productId}")
+    public String init(@PathVariable Long productId,
+                       @RequestParam int quantity,
+                       @RequestParam(defaultValue = "3600") long ttlSeconds) {
+        redisStockCacheRepository.init(productId, quantity, ttlSeconds);
+        return "Stock Initialized";
+    }
+
+    // 재고 조회
+    @GetMapping("/stocks/{productId}")
+    public Long getStock(@PathVariable Long productId) {
+        return redisStockCacheRepository.getStock(productId);
+    }
+
+    // 블로킹 차감
+    @PostMapping("/stocks/{productId}/decrease")
+    public boolean decrease(@PathVariable Long productId, @RequestParam int quantity) {
+        return redisStockCacheRepository.decrease(productId, quantity);
+    }
+
+    // Reactive 차감
+    @PostMapping("/stocks/{productId}/decrease/reactive")
+    public Mono<Boolean> decreaseReactive(@PathVariable Long productId, @RequestParam int quantity) {
+        return reactiveRedisStockCacheRepository.decrease(productId, quantity);
+    }
+}
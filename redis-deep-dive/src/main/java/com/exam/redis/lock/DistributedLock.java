@@ -10,7 +10,8 @@ import java.util.concurrent.TimeUnit;
 @Retention(RetentionPolicy.RUNTIME)
 public @interface DistributedLock {
     
-    // 락의 키 (SpEL 표현식 지원 예정)
+    // 락의 키 (SpEL 표현식: "'item:' + #itemId", 고정 키는 "'hot-deal'"처럼 따옴표로 감쌈)
+    // 결과가 Collection/배열이면 원소마다 락을 잡음 (MultiLock, 키 정렬 순서로 획득)
     String key();
 
     // 락 획득 대기 시간
@@ -21,4 +22,10 @@ public @interface DistributedLock {
 
     // 시간 단위
     TimeUnit timeUnit() default TimeUnit.SECONDS;
+
+    // 공정 락: 대기 순서대로 획득 (기아 방지, 대신 처리량은 낮아짐)
+    boolean fair() default false;
+
+    // 펜싱 토큰 발급: 락 획득 시 키별 단조 증가 번호를 DistributedLockContext로 전달
+    boolean fenced() default false;
 }
@@ -11,6 +11,9 @@ import org.redisson.api.RedissonClient;
 import org.springframework.stereotype.Component;
 
 import java.lang.reflect.Method;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 @Aspect
 @Component
@@ -19,7 +22,11 @@ import java.lang.reflect.Method;
 public class DistributedLockAop {
 
     private final RedissonClient redissonClient;
+    private final LockMetrics lockMetrics;
     private static final String REDISSON_LOCK_PREFIX = "LOCK:";
+    private static final String FENCING_TOKEN_PREFIX = "LOCK:FENCE:";
+
+    private final LockKeyResolver keyResolver = new LockKeyResolver();
 
     @Around("@annotation(com.exam.redis.lock.DistributedLock)")
     public Object lock(ProceedingJoinPoint joinPoint) throws Throwable {
@@ -27,31 +34,72 @@ public class DistributedLockAop {
         Method method = signature.getMethod();
         DistributedLock distributedLock = method.getAnnotation(DistributedLock.class);
 
-        // 키 생성 (단순화를 위해 파라미터 파싱 로직은 생략하고 어노테이션 값을 그대로 사용)
-        // 실무에서는 SpEL Parser를 써서 "#id" 같은 값을 파싱해야 함
-        String key = REDISSON_LOCK_PREFIX + distributedLock.key();
-        
-        RLock rLock = redissonClient.getLock(key);
+        // SpEL로 키 생성: "'hot-deal-item:' + #itemId" → ["hot-deal-item:1"]
+        // 결과가 여러 개면 정렬된 순서로 MultiLock 구성
+        List<String> keys = keyResolver.resolve(distributedLock.key(), method, joinPoint.getTarget(), joinPoint.getArgs());
+        RLock rLock = createLock(keys, distributedLock.fair());
+        String pattern = distributedLock.key();
 
+        boolean available = false;
+        long holdId = 0;
         try {
-            boolean available = rLock.tryLock(distributedLock.waitTime(), distributedLock.leaseTime(), distributedLock.timeUnit());
-            
+            long waitStart = System.nanoTime();
+            available = rLock.tryLock(distributedLock.waitTime(), distributedLock.leaseTime(), distributedLock.timeUnit());
+            long waitNanos = System.nanoTime() - waitStart;
+
             if (!available) {
-                log.warn("락 획득 실패: {}", key);
+                lockMetrics.recordTimeout(pattern, waitNanos);
+                log.warn("락 획득 실패: {}", keys);
                 return false; // 또는 예외 던지기
             }
 
-            log.info("락 획득 성공: {}", key);
-            return joinPoint.proceed();
+            lockMetrics.recordAcquired(pattern, waitNanos);
+            holdId = lockMetrics.acquired(pattern, keys, distributedLock.timeUnit().toMillis(distributedLock.leaseTime()));
+            log.debug("락 획득 성공: {}", keys);
+            if (!distributedLock.fenced()) {
+                return joinPoint.proceed();
+            }
+
+            Map<String, Long> previous = DistributedLockContext.bind(issueFencingTokens(keys));
+            try {
+                return joinPoint.proceed();
+            } finally {
+                DistributedLockContext.restore(previous);
+            }
         } catch (InterruptedException e) {
-            throw new InterruptedException();
+            Thread.currentThread().interrupt();
+            throw e;
         } finally {
-            try {
-                rLock.unlock();
-                log.info("락 해제 성공: {}", key);
-            } catch (IllegalMonitorStateException e) {
-                log.info("락이 이미 해제되었거나, 다른 스레드가 점유 중입니다.");
+            if (available) {
+                boolean leaseExpired = false;
+                try {
+                    rLock.unlock();
+                    log.debug("락 해제 성공: {}", keys);
+                } catch (IllegalMonitorStateException e) {
+                    // leaseTime이 지나 이미 자동 해제된 경우 → 임계 구역이 보호되지 않았을 수 있음
+                    leaseExpired = true;
+                    log.warn("락이 이미 해제되었습니다 (leaseTime 초과): {}", keys);
+                }
+                lockMetrics.released(holdId, leaseExpired);
             }
         }
     }
+
+    private RLock createLock(List<String> keys, boolean fair) {
+        RLock[] locks = keys.stream()
+                .map(key -> fair
+                        ? redissonClient.getFairLock(REDISSON_LOCK_PREFIX + key)
+                        : redissonClient.getLock(REDISSON_LOCK_PREFIX + key))
+                .toArray(RLock[]::new);
+        return locks.length == 1 ? locks[0] : redissonClient.getMultiLock(locks);
+    }
+
+    // 키별 단조 증가 토큰 (INCR) → 락을 잡은 순서대로 커지는 번호
+    private Map<String, Long> issueFencingTokens(List<String> keys) {
+        Map<String, Long> tokens = new LinkedHashMap<>();
+        for (String key : keys) {
+            tokens.put(key, redissonClient.getAtomicLong(FENCING_TOKEN_PREFIX + key).incrementAndGet());
+        }
+        return tokens;
+    }
 }
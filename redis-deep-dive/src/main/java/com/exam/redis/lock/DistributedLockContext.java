@@ -0,0 +1,52 @@
+package com.exam.redis.lock;
+
+import java.util.Map;
+
+/**
+ * @DistributedLock(fenced = true) 메서드 안에서 펜싱 토큰을 꺼내는 홀더.
+ *
+ * 펜싱 토큰: 락을 획득할 때마다 키별로 1씩 증가하는 번호.
+ * GC Pause 등으로 lease가 만료된 "예전 소유자"가 뒤늦게 쓰기를 시도해도,
+ * 저장소가 "지금까지 본 토큰보다 작은 토큰의 쓰기"를 거부하면 덮어쓰기를 막을 수 있다.
+ *   Client A: 토큰 33 획득 → GC Pause → lease 만료
+ *   Client B: 토큰 34 획득 → 쓰기 (저장소: 최신 토큰 = 34)
+ *   Client A: 깨어나서 토큰 33으로 쓰기 → 33 < 34 이므로 거부
+ */
+public final class DistributedLockContext {
+
+    private static final ThreadLocal<Map<String, Long>> FENCING_TOKENS = new ThreadLocal<>();
+
+    private DistributedLockContext() {
+    }
+
+    /**
+     * 단일 키 락의 펜싱 토큰. fenced 락 밖에서 호출하면 null.
+     */
+    public static Long fencingToken() {
+        Map<String, Long> tokens = FENCING_TOKENS.get();
+        return tokens == null || tokens.isEmpty() ? null : tokens.values().iterator().next();
+    }
+
+    /**
+     * 멀티 키 락에서 특정 키(SpEL 평가 결과)의 펜싱 토큰.
+     */
+    public static Long fencingToken(String key) {
+        Map<String, Long> tokens = FENCING_TOKENS.get();
+        return tokens == null ? null : tokens.get(key);
+    }
+
+    // 중첩 호출을 위해 이전 값을 반환 → finally에서 restore
+    static Map<String, Long> bind(Map<String, Long> tokens) {
+        Map<String, Long> previous = FENCING_TOKENS.get();
+        FENCING_TOKENS.set(tokens);
+        return previous;
+    }
+
+    static void restore(Map<String, Long> previous) {
+        if (previous == null) {
+            FENCING_TOKENS.remove();
+        } else {
+            FENCING_TOKENS.set(previous);
+        }
+    }
+}
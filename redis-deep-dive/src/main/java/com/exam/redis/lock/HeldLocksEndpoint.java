@@ -0,0 +1,46 @@
+package com.exam.redis.lock;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * 현재 이 노드가 보유 중인 분산 락 목록.
+ *
+ * GET /actuator/locks
+ * - 오래 잡고 있는 순으로 정렬
+ * - leaseExceeded=true: 이미 leaseTime이 지나 Redis에서는 풀렸을 수 있는 락 (다른 노드와 겹쳐 실행 중일 수 있음)
+ * - leaseTime이 0 이하(-1 = Redisson watchdog이 연장)면 고정 lease가 없으므로 leaseMillis/leaseExceeded는 null
+ *
+ * 노드별 목록이므로 클러스터 전체를 보려면 각 인스턴스를 조회해 합친다.
+ */
+@Component
+@Endpoint(id = "locks")
+@RequiredArgsConstructor
+public class HeldLocksEndpoint {
+
+    private final LockMetrics lockMetrics;
+
+    @ReadOperation
+    public List<HeldLockView> heldLocks() {
+        long now = System.nanoTime();
+        return lockMetrics.getHeldLocks().stream()
+                .map(lock -> {
+                    long heldMillis = (now - lock.acquiredNanos()) / 1_000_000;
+                    boolean hasLease = lock.leaseMillis() > 0;
+                    return new HeldLockView(lock.pattern(), lock.keys(), lock.owner(),
+                            Instant.ofEpochMilli(lock.acquiredAtMillis()), heldMillis,
+                            hasLease ? lock.leaseMillis() : null,
+                            hasLease ? heldMillis > lock.leaseMillis() : null);
+                })
+                .toList();
+    }
+
+    public record HeldLockView(String pattern, List<String> keys, String owner, Instant acquiredAt,
+                               long heldMillis, Long leaseMillis, Boolean leaseExceeded) {
+    }
+}
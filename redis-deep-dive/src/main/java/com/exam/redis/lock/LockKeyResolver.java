@@ -0,0 +1,63 @@
+package com.exam.redis.lock;
+
+import org.springframework.context.expression.MethodBasedEvaluationContext;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.expression.Expression;
+import org.springframework.expression.ExpressionParser;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.util.ObjectUtils;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * @DistributedLock의 SpEL 키를 실제 락 키 목록으로 변환.
+ *
+ * - 파싱된 Expression은 표현식 문자열별로 캐시 (파싱은 호출마다 하기엔 비쌈)
+ * - 메서드 파라미터는 #이름 또는 #p0/#a0으로 참조
+ * - 결과가 Collection/배열이면 원소마다 키 생성, 중복 제거 후 정렬
+ *   → 여러 스레드가 같은 키 집합을 항상 같은 순서로 잠가 교착/경합 감소
+ * - null/빈 문자열 원소나 빈 결과는 IllegalArgumentException
+ *   (null을 "null" 키로 바꾸면 null 인자 호출이 모두 전역 락 하나를 공유하고,
+ *    키가 0개면 MultiLock 생성이 알기 어려운 오류로 실패함)
+ */
+class LockKeyResolver {
+
+    private final ExpressionParser parser = new SpelExpressionParser();
+    private final ParameterNameDiscoverer parameterNameDiscoverer = new DefaultParameterNameDiscoverer();
+    private final Map<String, Expression> expressionCache = new ConcurrentHashMap<>();
+
+    List<String> resolve(String keyExpression, Method method, Object target, Object[] args) {
+        Expression expression = expressionCache.computeIfAbsent(keyExpression, parser::parseExpression);
+        Object value = expression.getValue(new MethodBasedEvaluationContext(target, method, args, parameterNameDiscoverer));
+
+        TreeSet<String> keys = new TreeSet<>();
+        if (value instanceof Collection<?> collection) {
+            collection.forEach(element -> keys.add(toKey(element, keyExpression)));
+        } else if (value != null && value.getClass().isArray()) {
+            for (Object element : ObjectUtils.toObjectArray(value)) {
+                keys.add(toKey(element, keyExpression));
+            }
+        } else {
+            keys.add(toKey(value, keyExpression));
+        }
+        if (keys.isEmpty()) {
+            throw new IllegalArgumentException("Lock key expression resolved to no keys: " + keyExpression);
+        }
+        return new ArrayList<>(keys);
+    }
+
+    private static String toKey(Object element, String keyExpression) {
+        String key = element == null ? null : String.valueOf(element);
+        if (key == null || key.isBlank()) {
+            throw new IllegalArgumentException("Lock key expression resolved to a null or blank key: " + keyExpression);
+        }
+        return key;
+    }
+}
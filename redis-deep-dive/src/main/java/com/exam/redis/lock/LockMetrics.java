@@ -0,0 +1,135 @@
+package com.exam.redis.lock;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 분산 락 경합 메트릭 + 현재 이 노드가 보유 중인 락 목록.
+ *
+ * 태그 key는 @DistributedLock의 SpEL 표현식(키 패턴) 그대로 사용한다.
+ *   "'hot-deal-item:' + #itemId" → 상품이 백만 개여도 시계열은 1개 (상품 ID를 태그로 쓰면 카디널리티 폭발)
+ *
+ * - distributed.lock.wait          : tryLock 대기 시간 (result=acquired|timeout, 히스토그램)
+ * - distributed.lock.hold          : 락 보유 시간 (획득 ~ 해제, 히스토그램)
+ * - distributed.lock.timeouts      : waitTime 안에 락을 얻지 못한 횟수
+ * - distributed.lock.lease.expired : 해제 시점에 이미 leaseTime이 지나 자동 해제된 횟수
+ *                                    (임계 구역이 보호되지 않았을 수 있음 → leaseTime 재검토 신호)
+ * - distributed.lock.held          : 현재 보유 중인 락 수 (Gauge)
+ *
+ * Meter는 키 패턴별로 한 번만 등록해 캐시 (호출마다 builder.register()는 레지스트리 조회 + 할당).
+ */
+@Component
+public class LockMetrics {
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, PatternMeters> metersByPattern = new ConcurrentHashMap<>();
+    private final Map<Long, HeldLock> heldLocks = new ConcurrentHashMap<>();
+    private final AtomicLong holdSequence = new AtomicLong();
+
+    public LockMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        meterRegistry.gaugeMapSize("distributed.lock.held", List.of(), heldLocks);
+    }
+
+    void recordAcquired(String pattern, long waitNanos) {
+        meters(pattern).acquiredWait.record(waitNanos, TimeUnit.NANOSECONDS);
+    }
+
+    void recordTimeout(String pattern, long waitNanos) {
+        PatternMeters meters = meters(pattern);
+        meters.timeoutWait.record(waitNanos, TimeUnit.NANOSECONDS);
+        meters.timeouts.increment();
+    }
+
+    /**
+     * 락 획득 직후 호출. 반환된 ID로 {@link #released}를 호출해야 목록에서 빠진다.
+     */
+    long acquired(String pattern, List<String> keys, long leaseMillis) {
+        long holdId = holdSequence.incrementAndGet();
+        heldLocks.put(holdId, new HeldLock(pattern, keys, Thread.currentThread().getName(),
+                System.currentTimeMillis(), System.nanoTime(), leaseMillis));
+        return holdId;
+    }
+
+    void released(long holdId, boolean leaseExpired) {
+        HeldLock heldLock = heldLocks.remove(holdId);
+        if (heldLock == null) {
+            return;
+        }
+        PatternMeters meters = meters(heldLock.pattern());
+        meters.hold.record(System.nanoTime() - heldLock.acquiredNanos(), TimeUnit.NANOSECONDS);
+        if (leaseExpired) {
+            meters.leaseExpirations.increment();
+        }
+    }
+
+    /**
+     * 현재 보유 중인 락 (오래 잡고 있는 순).
+     */
+    List<HeldLock> getHeldLocks() {
+        return heldLocks.values().stream()
+                .sorted(Comparator.comparingLong(HeldLock::acquiredAtMillis))
+                .toList();
+    }
+
+    private PatternMeters meters(String pattern) {
+        return metersByPattern.computeIfAbsent(pattern, this::register);
+    }
+
+    private PatternMeters register(String pattern) {
+        return new PatternMeters(
+                waitTimer(pattern, "acquired"),
+                waitTimer(pattern, "timeout"),
+                Timer.builder("distributed.lock.hold")
+                        .description("Time a distributed lock was held")
+                        .tag("key", pattern)
+                        .publishPercentileHistogram()
+                        .register(meterRegistry),
+                Counter.builder("distributed.lock.timeouts")
+                        .description("Lock acquisitions that exceeded waitTime")
+                        .tag("key", pattern)
+                        .register(meterRegistry),
+                Counter.builder("distributed.lock.lease.expired")
+                        .description("Locks whose lease expired before unlock")
+                        .tag("key", pattern)
+                        .register(meterRegistry)
+        );
+    }
+
+    private Timer waitTimer(String pattern, String result) {
+        return Timer.builder("distributed.lock.wait")
+                .description("Time spent waiting in tryLock")
+                .tag("key", pattern)
+                .tag("result", result)
+                .publishPercentileHistogram()
+                .maximumExpectedValue(Duration.ofSeconds(10))
+                .register(meterRegistry);
+    }
+
+    private record PatternMeters(Timer acquiredWait, Timer timeoutWait, Timer hold,
+                                 Counter timeouts, Counter leaseExpirations) {
+    }
+
+    /**
+     * @param pattern          SpEL 키 패턴
+     * @param keys             실제 락 키 (MultiLock이면 여러 개)
+     * @param owner            락을 잡은 스레드
+     * @param acquiredAtMillis 획득 시각 (epoch ms, 표시용)
+     * @param acquiredNanos    획득 시각 (nanoTime, 보유 시간 계산용)
+     * @param leaseMillis      자동 해제까지의 시간 (0 이하면 watchdog 연장, 고정 lease 없음)
+     */
+    record HeldLock(String pattern, List<String> keys, String owner,
+                    long acquiredAtMillis, long acquiredNanos, long leaseMillis) {
+    }
+}
@@ -0,0 +1,160 @@
+package com.exam.redis.script;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Lua Script 레지스트리 — SCRIPT LOAD 사전 로드 + EVALSHA 실행 + 메트릭.
+ *
+ * EVAL은 매 호출마다 스크립트 본문 전체를 전송하지만, EVALSHA는 40바이트 SHA1만 전송한다.
+ * 페일오버로 승격된 레플리카나 SCRIPT FLUSH 이후에는 스크립트 캐시가 비어 있으므로
+ * NOSCRIPT 에러를 받으면 SCRIPT LOAD 후 1회 재시도한다 (본문은 재로드할 때만 전송).
+ *
+ * 메트릭 (tag: script=등록 이름):
+ * - redis.script.latency     : 스크립트 실행 시간 (Timer)
+ * - redis.script.invocations : 호출 수 (Counter)
+ * - redis.script.reloads     : NOSCRIPT로 인한 재로드 수 (Counter)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LuaScriptRegistry {
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final MeterRegistry meterRegistry;
+
+    // SHA1 → 등록된 스크립트
+    private final Map<String, RegisteredScript> scripts = new ConcurrentHashMap<>();
+
+    /**
+     * 스크립트 등록. 실제 로드는 애플리케이션 기동 완료 시점에 일괄 수행한다.
+     */
+    public void register(String name, RedisScript<?> script) {
+        scripts.computeIfAbsent(script.getSha1(), sha -> new RegisteredScript(
+            name,
+            script,
+            Timer.builder("redis.script.latency")
+                .description("Lua script execution time")
+                .tag("script", name)
+                .register(meterRegistry),
+            Counter.builder("redis.script.invocations")
+                .description("Lua script invocations")
+                .tag("script", name)
+                .register(meterRegistry),
+            Counter.builder("redis.script.reloads")
+                .description("Lua script reloads caused by NOSCRIPT")
+                .tag("script", name)
+                .register(meterRegistry)
+        ));
+    }
+
+    /**
+     * 등록된 모든 스크립트를 SCRIPT LOAD로 사전 로드.
+     * 실패해도 기동은 계속 진행 → 첫 호출 시 NOSCRIPT 재로드로 복구된다.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void preloadAll() {
+        for (RegisteredScript registered : scripts.values()) {
+            try {
+                redisTemplate.execute((RedisCallback<String>) connection ->
+                    connection.scriptingCommands().scriptLoad(scriptBytes(registered.script())));
+                log.info("Lua Script 사전 로드 - {}: {}", registered.name(), registered.script().getSha1());
+            } catch (Exception e) {
+                log.warn("Lua Script 사전 로드 실패 - {}: {}", registered.name(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * EVALSHA로 스크립트 실행. NOSCRIPT면 재로드 후 1회 재시도.
+     */
+    public <T> T execute(RedisScript<T> script, List<String> keys, Object... args) {
+        RegisteredScript registered = scripts.get(script.getSha1());
+        if (registered == null) {
+            throw new IllegalStateException("등록되지 않은 Lua Script: " + script.getSha1());
+        }
+
+        registered.invocations().increment();
+        return registered.latency().record(() -> evalSha(registered, script, keys, args));
+    }
+
+    /**
+     * 예외 체인에 NOSCRIPT 에러가 포함되어 있는지 확인.
+     * 파이프라인으로 EVALSHA를 직접 보내는 쪽에서 재시도 여부 판단에 사용.
+     */
+    public static boolean isNoScriptError(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause.getMessage() != null && cause.getMessage().contains("NOSCRIPT")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T evalSha(RegisteredScript registered, RedisScript<T> script, List<String> keys, Object[] args) {
+        RedisSerializer<String> serializer = redisTemplate.getStringSerializer();
+        byte[][] keysAndArgs = new byte[keys.size() + args.length][];
+        for (int i = 0; i < keys.size(); i++) {
+            keysAndArgs[i] = serializer.serialize(keys.get(i));
+        }
+        for (int i = 0; i < args.length; i++) {
+            keysAndArgs[keys.size() + i] = serializer.serialize(String.valueOf(args[i]));
+        }
+        ReturnType returnType = ReturnType.fromJavaType(script.getResultType());
+
+        Object result = redisTemplate.execute((RedisCallback<Object>) connection -> {
+            try {
+                return connection.scriptingCommands().evalSha(script.getSha1(), returnType, keys.size(), keysAndArgs);
+            } catch (RuntimeException e) {
+                if (!isNoScriptError(e)) {
+                    throw e;
+                }
+                // 페일오버 / SCRIPT FLUSH로 스크립트 캐시가 비어 있음 → 재로드 후 재시도
+                log.warn("NOSCRIPT - Lua Script 재로드: {}", registered.name());
+                registered.reloads().increment();
+                connection.scriptingCommands().scriptLoad(scriptBytes(script));
+                return connection.scriptingCommands().evalSha(script.getSha1(), returnType, keys.size(), keysAndArgs);
+            }
+        });
+        return (T) deserialize(result);
+    }
+
+    private Object deserialize(Object result) {
+        if (result instanceof byte[] bytes) {
+            return redisTemplate.getStringSerializer().deserialize(bytes);
+        }
+        if (result instanceof List<?> list) {
+            return list.stream().map(this::deserialize).toList();
+        }
+        return result; // Long, Boolean은 그대로
+    }
+
+    private byte[] scriptBytes(RedisScript<?> script) {
+        return redisTemplate.getStringSerializer().serialize(script.getScriptAsString());
+    }
+
+    private record RegisteredScript(
+        String name,
+        RedisScript<?> script,
+        Timer latency,
+        Counter invocations,
+        Counter reloads
+    ) {
+    }
+}
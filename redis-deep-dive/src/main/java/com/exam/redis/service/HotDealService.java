@@ -1,6 +1,7 @@
 package com.exam.redis.service;
 
 import com.exam.redis.lock.DistributedLock;
+import com.exam.redis.lock.DistributedLockContext;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
@@ -8,15 +9,17 @@ import org.springframework.stereotype.Service;
 @Service
 public class HotDealService {
 
-    // 분산 락 적용: 동시에 여러 서버/스레드에서 호출해도 한 번에 하나만 실행됨
-    @DistributedLock(key = "hot-deal-item-1")
-    public void purchaseItem(String userId) {
-        log.info("구매 로직 진입 - User: {}", userId);
+    // 분산 락 적용: 같은 상품은 한 번에 하나만 실행, 다른 상품은 서로 기다리지 않음 (상품별 락)
+    @DistributedLock(key = "'hot-deal-item:' + #itemId", fenced = true)
+    public void purchaseItem(Long itemId, String userId) {
+        // 재고/주문 저장소에 쓸 때 토큰을 함께 넘기면, lease 만료 후 뒤늦게 도착한 쓰기를 거부할 수 있음
+        Long fencingToken = DistributedLockContext.fencingToken();
+        log.info("구매 로직 진입 - Item: {}, User: {}, FencingToken: {}", itemId, userId, fencingToken);
         try {
             Thread.sleep(1000); // 로직 수행 시간 시뮬레이션
         } catch (InterruptedException e) {
             e.printStackTrace();
         }
-        log.info("구매 완료 - User: {}", userId);
+        log.info("구매 완료 - Item: {}, User: {}", itemId, userId);
     }
 }
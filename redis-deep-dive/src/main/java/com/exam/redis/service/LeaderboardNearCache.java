@@ -0,0 +1,162 @@
+package com.exam.redis.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.ZSetOperations.TypedTuple;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * 랭킹 상위 N명 로컬 캐시 (Near Cache).
+ *
+ * 상위 100명은 초당 수천 번 조회되지만 거의 바뀌지 않는다.
+ * 상위 maxLimit명을 점수와 함께 JVM 메모리에 짧은 TTL로 들고 있고,
+ * getTopRank(limit)는 limit <= maxLimit이면 이 스냅샷의 앞부분을 잘라서 반환한다.
+ *   → 캐시 크기는 maxLimit명으로 고정 (limit 값마다 따로 캐시하지 않음)
+ *
+ * 무효화:
+ * - addScore가 캐시 범위에 영향을 줄 때만 Pub/Sub으로 전 노드에 무효화 메시지 발행
+ *   (이미 상위권인 유저의 점수 변경 / 새 점수가 커트라인 이상 / 상위권이 아직 maxLimit명 미만)
+ * - 범위 밖의 점수 변경은 발행하지 않음 → 대부분의 addScore는 PUBLISH 비용 없음
+ * - 놓친 메시지가 있어도 TTL이 지나면 다시 로드
+ *
+ * 메트릭: ranking.near-cache.hits / misses (Counter), ranking.near-cache.hit.ratio (Gauge)
+ */
+@Slf4j
+@Component
+public class LeaderboardNearCache implements MessageListener {
+
+    public static final String INVALIDATION_CHANNEL = "game:leaderboard:invalidate";
+
+    private final RedisMessageListenerContainer listenerContainer;
+    private final int maxLimit;
+    private final long ttlMillis;
+
+    private final Counter hits;
+    private final Counter misses;
+
+    // 무효화될 때마다 증가 → 로드 도중 무효화되면 그 결과는 캐시하지 않음
+    private final AtomicLong generation = new AtomicLong();
+
+    // 마지막으로 로드한 스냅샷 (만료 여부와 관계없이 커트라인 판단에 사용)
+    private volatile Snapshot snapshot;
+
+    public LeaderboardNearCache(RedisMessageListenerContainer listenerContainer,
+                                MeterRegistry meterRegistry,
+                                @Value("${ranking.near-cache.max-limit:100}") int maxLimit,
+                                @Value("${ranking.near-cache.ttl-millis:1000}") long ttlMillis) {
+        this.listenerContainer = listenerContainer;
+        this.maxLimit = maxLimit;
+        this.ttlMillis = ttlMillis;
+
+        this.hits = Counter.builder("ranking.near-cache.hits")
+                .description("Leaderboard near cache hits")
+                .register(meterRegistry);
+        this.misses = Counter.builder("ranking.near-cache.misses")
+                .description("Leaderboard near cache misses")
+                .register(meterRegistry);
+        meterRegistry.gauge("ranking.near-cache.hit.ratio", this, LeaderboardNearCache::getHitRatio);
+    }
+
+    @PostConstruct
+    void subscribe() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(INVALIDATION_CHANNEL));
+    }
+
+    public int getMaxLimit() {
+        return maxLimit;
+    }
+
+    /**
+     * 상위 limit명 조회. 스냅샷이 유효하면 Redis 접근 없이 반환.
+     *
+     * @param loader 상위 maxLimit명을 점수와 함께 조회 (ZREVRANGE 0 maxLimit-1 WITHSCORES)
+     */
+    public Set<String> getTop(int limit, Supplier<Set<TypedTuple<String>>> loader) {
+        Snapshot current = snapshot;
+        if (current != null && !current.isExpired()) {
+            hits.increment();
+            return current.top(limit);
+        }
+
+        misses.increment();
+        long loadGeneration = generation.get();
+        Snapshot loaded = Snapshot.of(loader.get(), ttlMillis);
+        if (generation.get() == loadGeneration) {
+            snapshot = loaded;
+        }
+        return loaded.top(limit);
+    }
+
+    /**
+     * 이 점수 변경이 캐시된 상위권에 영향을 주는지 판단.
+     * 스냅샷이 만료됐어도 마지막 커트라인을 기준으로 판단한다 (다른 노드가 들고 있을 수 있음).
+     */
+    public boolean affects(String userId, double score) {
+        Snapshot current = snapshot;
+        return current == null
+                || current.members().contains(userId)
+                || current.ordered().size() < maxLimit
+                || score >= current.minScore();
+    }
+
+    public void invalidate() {
+        generation.incrementAndGet();
+        Snapshot current = snapshot;
+        if (current != null) {
+            snapshot = current.expired(); // 커트라인은 유지, 조회는 다시 로드
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        invalidate();
+        log.debug("랭킹 Near Cache 무효화 수신: {}", message);
+    }
+
+    public double getHitRatio() {
+        double total = hits.count() + misses.count();
+        return total == 0 ? 0.0 : hits.count() / total;
+    }
+
+    private record Snapshot(List<String> ordered, Set<String> members, double minScore, long expiresAtMillis) {
+
+        static Snapshot of(Set<TypedTuple<String>> tuples, long ttlMillis) {
+            List<String> ordered = new ArrayList<>();
+            double minScore = Double.NEGATIVE_INFINITY;
+            if (tuples != null) {
+                for (TypedTuple<String> tuple : tuples) {
+                    ordered.add(tuple.getValue());
+                    minScore = tuple.getScore(); // 내림차순이므로 마지막이 커트라인
+                }
+            }
+            return new Snapshot(ordered, new HashSet<>(ordered), minScore, System.currentTimeMillis() + ttlMillis);
+        }
+
+        Set<String> top(int limit) {
+            return new LinkedHashSet<>(ordered.subList(0, Math.min(limit, ordered.size())));
+        }
+
+        boolean isExpired() {
+            return System.currentTimeMillis() >= expiresAtMillis;
+        }
+
+        Snapshot expired() {
+            return new Snapshot(ordered, members, minScore, 0);
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.exam.redis.service;
+
+/**
+ * 랭킹 항목.
+ *
+ * @param rank 0-based 전체 순위 (0 = 1위)
+ */
+public record RankEntry(String userId, double score, long rank) {
+}
@@ -0,0 +1,11 @@
+package com.exam.redis.service;
+
+import java.util.List;
+
+/**
+ * 커서 기반 랭킹 페이지.
+ *
+ * @param nextCursor 다음 페이지 조회용 커서 (마지막 페이지면 null)
+ */
+public record RankingPage(List<RankEntry> entries, String nextCursor) {
+}
@@ -1,10 +1,18 @@
 package com.exam.redis.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
 import org.springframework.data.redis.core.ZSetOperations;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 @Service
@@ -12,21 +20,107 @@ import java.util.Set;
 public class RankingService {
 
     private final RedisTemplate<String, String> redisTemplate;
+    private final LeaderboardNearCache nearCache;
     private static final String LEADERBOARD_KEY = "game:leaderboard";
 
+    // 벌크 적재 시 ZADD 1개에 담는 멤버 수 / 파이프라인 1회에 담는 ZINCRBY 수
+    @Value("${ranking.bulk.batch-size:500}")
+    private int batchSize;
+
     // 점수 추가 (ZADD)
     public void addScore(String userId, double score) {
         redisTemplate.opsForZSet().add(LEADERBOARD_KEY, userId, score);
+        invalidateIfAffected(Map.of(userId, score));
+    }
+
+    /**
+     * 점수 벌크 추가.
+     *
+     * addScore를 N번 호출하면 ZADD N번 = N번 왕복.
+     * batchSize명씩 묶어 멀티 멤버 ZADD(ZADD key s1 m1 s2 m2 ...)로 만들고, 전부 파이프라인으로 전송.
+     *   100,000명, batchSize 500 → ZADD 200개, 왕복 1번
+     */
+    public void addScores(Map<String, Double> scores) {
+        List<Map.Entry<String, Double>> entries = new ArrayList<>(scores.entrySet());
+
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                ZSetOperations<String, String> zSet = (ZSetOperations<String, String>) operations.opsForZSet();
+                for (int from = 0; from < entries.size(); from += batchSize) {
+                    Set<ZSetOperations.TypedTuple<String>> tuples = new HashSet<>();
+                    for (Map.Entry<String, Double> entry : entries.subList(from, Math.min(from + batchSize, entries.size()))) {
+                        tuples.add(ZSetOperations.TypedTuple.of(entry.getKey(), entry.getValue()));
+                    }
+                    zSet.add(LEADERBOARD_KEY, tuples);
+                }
+                return null;
+            }
+        });
+
+        invalidateIfAffected(scores);
+    }
+
+    /**
+     * 점수 벌크 증가 (ZINCRBY).
+     *
+     * ZINCRBY는 멤버 1개씩만 받으므로 batchSize개씩 파이프라인으로 묶어 전송.
+     *
+     * @return 유저별 증가 후 점수
+     */
+    public Map<String, Double> incrementScores(Map<String, Double> deltas) {
+        List<Map.Entry<String, Double>> entries = new ArrayList<>(deltas.entrySet());
+        Map<String, Double> updated = new LinkedHashMap<>();
+
+        for (int from = 0; from < entries.size(); from += batchSize) {
+            List<Map.Entry<String, Double>> chunk = entries.subList(from, Math.min(from + batchSize, entries.size()));
+
+            List<Object> results = redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <K, V> Object execute(RedisOperations<K, V> operations) {
+                    ZSetOperations<String, String> zSet = (ZSetOperations<String, String>) operations.opsForZSet();
+                    for (Map.Entry<String, Double> entry : chunk) {
+                        zSet.incrementScore(LEADERBOARD_KEY, entry.getKey(), entry.getValue());
+                    }
+                    return null;
+                }
+            });
+
+            for (int i = 0; i < chunk.size(); i++) {
+                updated.put(chunk.get(i).getKey(), (Double) results.get(i));
+            }
+        }
+
+        invalidateIfAffected(updated);
+        return updated;
     }
 
     // 상위 랭커 조회 (ZREVRANGE)
     public Set<String> getTopRank(int limit) {
-        // 0부터 limit-1까지 (점수 높은 순)
-        return redisTemplate.opsForZSet().reverseRange(LEADERBOARD_KEY, 0, limit - 1);
+        if (limit > nearCache.getMaxLimit()) {
+            // 0부터 limit-1까지 (점수 높은 순)
+            return redisTemplate.opsForZSet().reverseRange(LEADERBOARD_KEY, 0, limit - 1);
+        }
+        // 상위 maxLimit명을 로컬 캐시에서 잘라서 반환
+        return nearCache.getTop(limit, () ->
+            redisTemplate.opsForZSet().reverseRangeWithScores(LEADERBOARD_KEY, 0, nearCache.getMaxLimit() - 1));
     }
     
     // 특정 유저 랭킹 조회 (ZREVRANK)
     public Long getUserRank(String userId) {
         return redisTemplate.opsForZSet().reverseRank(LEADERBOARD_KEY, userId);
     }
+
+    // 캐시된 상위권에 영향을 줄 때만 무효화 (자기 노드는 즉시, 다른 노드는 Pub/Sub)
+    // 벌크 적재도 무효화 메시지는 최대 1번 (payload: 변경된 유저 수, 수신 측은 내용과 무관하게 무효화)
+    private void invalidateIfAffected(Map<String, Double> scores) {
+        boolean affected = scores.entrySet().stream()
+            .anyMatch(entry -> nearCache.affects(entry.getKey(), entry.getValue()));
+        if (affected) {
+            nearCache.invalidate();
+            redisTemplate.convertAndSend(LeaderboardNearCache.INVALIDATION_CHANNEL, String.valueOf(scores.size()));
+        }
+    }
 }
@@ -0,0 +1,318 @@
+package com.exam.redis.service;
+
+import com.exam.redis.script.LuaScriptRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.ZSetOperations.TypedTuple;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * 샤딩된 랭킹 보드.
+ *
+ * 단일 ZSet(game:leaderboard)에 수백만 명이 쌓이면 키 하나가 한 노드에 몰리고,
+ * 큰 범위의 ZREVRANGE가 수 ms 동안 단일 스레드 Redis를 점유한다.
+ * userId 해시로 N개의 ZSet에 분산하고, 조회 시 샤드별 결과를 병합한다.
+ *
+ * - 샤드 선택: hash(userId) % N → 점수가 바뀌어도 샤드가 고정 (점수 구간 샤딩은 이동 비용 발생)
+ * - 상위 K명: 샤드별 상위 K명을 파이프라인으로 조회 → 병합 후 K명 (N * K개만 전송)
+ * - 순위: 샤드별 ZCOUNT(내 점수 초과) 합계 + 동점자 보정
+ * - 정렬 기준: 점수 내림차순, 동점이면 userId 내림차순 (단일 ZSet의 ZREVRANGE와 동일)
+ *
+ * 동점자 처리:
+ *   같은 점수에 수만 명이 몰릴 수 있으므로 동점자 전체를 가져오지 않는다.
+ *   ZSet 안에서 동점자는 member 바이트 오름차순으로 연속해 있으므로,
+ *   Lua Script가 그 구간을 이진 탐색(ZRANGE index index, O(log N) x log T)해 필요한 개수/구간만 반환한다.
+ */
+@Service
+public class ShardedRankingService {
+
+    private static final String SHARD_KEY_PREFIX = "game:leaderboard:shard:";
+
+    private static final Comparator<TypedTuple<String>> RANK_ORDER =
+        Comparator.comparing((TypedTuple<String> tuple) -> tuple.getScore()).reversed()
+            .thenComparing(TypedTuple::getValue, Comparator.reverseOrder());
+
+    // ─── Lua Script — 동점자 구간 이진 탐색 (공통) ────────────────────────────
+    //
+    // KEYS[1]: 샤드 키, ARGV[1]: 점수, ARGV[2]: userId
+    //   first : 동점자 구간의 시작 인덱스 (오름차순) = 점수 미만인 멤버 수
+    //   ties  : 동점자 수
+    //   lower : 동점자 중 userId보다 작은 멤버 수 → [first, first + lower)가 userId보다 뒤 순위
+    //   upper : userId 자신을 건너뛴 위치 → [first + upper, first + ties)가 userId보다 앞 순위
+    //
+    // member 비교는 바이트 단위 (Lua의 문자열 < 는 로케일(strcoll)을 따르므로 ZSet 정렬과 다를 수 있음)
+    private static final String TIE_SEARCH = """
+        local function before(a, b)
+            local n = math.min(#a, #b)
+            for i = 1, n do
+                local x, y = string.byte(a, i), string.byte(b, i)
+                if x ~= y then
+                    return x < y
+                end
+            end
+            return #a < #b
+        end
+        local first = redis.call('ZCOUNT', KEYS[1], '-inf', '(' .. ARGV[1])
+        local ties = redis.call('ZCOUNT', KEYS[1], ARGV[1], ARGV[1])
+        local low, high = 0, ties
+        while low < high do
+            local mid = math.floor((low + high) / 2)
+            if before(redis.call('ZRANGE', KEYS[1], first + mid, first + mid)[1], ARGV[2]) then
+                low = mid + 1
+            else
+                high = mid
+            end
+        end
+        local lower = low
+        local upper = lower
+        if upper < ties and redis.call('ZRANGE', KEYS[1], first + upper, first + upper)[1] == ARGV[2] then
+            upper = upper + 1
+        end
+        """;
+
+    // 동점자 중 userId보다 앞 순위(member가 더 큰)인 유저 수
+    private static final RedisScript<Long> TIES_AHEAD_SCRIPT = RedisScript.of(
+        TIE_SEARCH + """
+        return ties - upper
+        """,
+        Long.class
+    );
+
+    // 동점자 중 userId와 가장 가까운 최대 ARGV[3]명 (ARGV[4] = 'ahead': 앞 순위 / 'behind': 뒤 순위)
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> TIES_NEAR_SCRIPT = RedisScript.of(
+        TIE_SEARCH + """
+        local limit = tonumber(ARGV[3])
+        if ARGV[4] == 'behind' then
+            if lower == 0 or limit <= 0 then
+                return {}
+            end
+            return redis.call('ZRANGE', KEYS[1], first + math.max(0, lower - limit), first + lower - 1)
+        end
+        if upper >= ties or limit <= 0 then
+            return {}
+        end
+        return redis.call('ZRANGE', KEYS[1], first + upper, first + math.min(ties, upper + limit) - 1)
+        """,
+        List.class
+    );
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final LuaScriptRegistry scriptRegistry;
+    private final int shardCount;
+
+    public ShardedRankingService(RedisTemplate<String, String> redisTemplate,
+                                 LuaScriptRegistry scriptRegistry,
+                                 @Value("${ranking.shard-count:8}") int shardCount) {
+        this.redisTemplate = redisTemplate;
+        this.scriptRegistry = scriptRegistry;
+        this.shardCount = shardCount;
+    }
+
+    @PostConstruct
+    void registerScripts() {
+        scriptRegistry.register("ranking.ties-ahead", TIES_AHEAD_SCRIPT);
+        scriptRegistry.register("ranking.ties-near", TIES_NEAR_SCRIPT);
+    }
+
+    // 점수 추가 (해당 유저의 샤드에만 ZADD)
+    public void addScore(String userId, double score) {
+        redisTemplate.opsForZSet().add(shardKey(userId), userId, score);
+    }
+
+    // 상위 랭커 조회 (샤드별 ZREVRANGE 0 limit-1 → 병합)
+    public List<RankEntry> getTopRank(int limit) {
+        List<Set<TypedTuple<String>>> perShard =
+            onAllShards((zSet, key) -> zSet.reverseRangeWithScores(key, 0, limit - 1));
+        return toEntries(topOf(flatten(perShard), limit), 0);
+    }
+
+    // 특정 유저 랭킹 조회 (0-based)
+    public Long getUserRank(String userId) {
+        Double score = redisTemplate.opsForZSet().score(shardKey(userId), userId);
+        return score == null ? null : rankOf(userId, score);
+    }
+
+    /**
+     * 유저 주변 랭킹 조회 (위로 radius명 + 본인 + 아래로 radius명).
+     */
+    public List<RankEntry> getAroundUser(String userId, int radius) {
+        Double score = redisTemplate.opsForZSet().score(shardKey(userId), userId);
+        if (score == null) {
+            return List.of();
+        }
+        long rank = rankOf(userId, score);
+
+        // 위쪽: 점수가 더 높은 유저 중 가장 가까운 radius명 (샤드별 오름차순 LIMIT) + 가장 가까운 앞 순위 동점자 radius명
+        List<Set<TypedTuple<String>>> higher = onAllShards((zSet, key) ->
+            zSet.rangeByScoreWithScores(key, Math.nextUp(score), Double.POSITIVE_INFINITY, 0, radius));
+        List<TypedTuple<String>> above = flatten(higher);
+        above.addAll(tiesNear(score, userId, radius, "ahead"));
+        above.sort(RANK_ORDER);
+        above = above.subList(Math.max(0, above.size() - radius), above.size());
+
+        // 아래쪽: 점수가 더 낮은 유저 중 가장 가까운 radius명 + 가장 가까운 뒤 순위 동점자 radius명
+        List<Set<TypedTuple<String>>> lower = onAllShards((zSet, key) ->
+            zSet.reverseRangeByScoreWithScores(key, Double.NEGATIVE_INFINITY, Math.nextDown(score), 0, radius));
+        List<TypedTuple<String>> below = flatten(lower);
+        below.addAll(tiesNear(score, userId, radius, "behind"));
+
+        List<TypedTuple<String>> window = new ArrayList<>(above);
+        window.add(TypedTuple.of(userId, score));
+        window.addAll(topOf(below, radius));
+        return toEntries(window, rank - above.size());
+    }
+
+    /**
+     * 커서 기반 페이지 조회.
+     *
+     * OFFSET 방식(ZREVRANGE 10000 10019)은 뒤 페이지일수록 건너뛰는 비용이 커지고 샤드 병합도 불가능하다.
+     * 커서에 "마지막 항목의 (순위, 점수, userId)"를 담아 그 다음 항목부터 size개만 조회한다.
+     *
+     * @param cursor 이전 페이지의 nextCursor (첫 페이지면 null)
+     */
+    public RankingPage getPage(String cursor, int size) {
+        if (cursor == null) {
+            List<RankEntry> entries = getTopRank(size);
+            return new RankingPage(entries, nextCursor(entries, size));
+        }
+
+        String[] parts = cursor.split(":", 3);
+        long lastRank = Long.parseLong(parts[0]);
+        double lastScore = Double.parseDouble(parts[1]);
+        String lastUserId = parts[2];
+
+        // 커서보다 점수가 낮은 항목 + 같은 점수 중 userId가 더 작은 항목 (각각 샤드별 최대 size개)
+        List<Set<TypedTuple<String>>> lower = onAllShards((zSet, key) ->
+            zSet.reverseRangeByScoreWithScores(key, Double.NEGATIVE_INFINITY, Math.nextDown(lastScore), 0, size));
+        List<TypedTuple<String>> candidates = flatten(lower);
+        candidates.addAll(tiesNear(lastScore, lastUserId, size, "behind"));
+
+        List<RankEntry> entries = toEntries(topOf(candidates, size), lastRank + 1);
+        return new RankingPage(entries, nextCursor(entries, size));
+    }
+
+    private long rankOf(String userId, double score) {
+        List<Long> higherCounts = onAllShards((zSet, key) ->
+            zSet.count(key, Math.nextUp(score), Double.POSITIVE_INFINITY));
+        long rank = higherCounts.stream().mapToLong(Long::longValue).sum();
+
+        // 동점자 중 userId가 더 큰 유저가 앞 순위 (개수만 받음)
+        List<Long> tiesAhead = scriptOnAllShards(TIES_AHEAD_SCRIPT, score, userId);
+        return rank + tiesAhead.stream().mapToLong(Long::longValue).sum();
+    }
+
+    /**
+     * 샤드별로 userId와 가장 가까운 동점자를 최대 limit명씩 조회.
+     *
+     * @param direction "ahead" (앞 순위, userId보다 큰 member) / "behind" (뒤 순위, userId보다 작은 member)
+     */
+    private List<TypedTuple<String>> tiesNear(double score, String userId, int limit, String direction) {
+        List<List<String>> perShard = scriptOnAllShards(TIES_NEAR_SCRIPT, score, userId, limit, direction);
+        List<TypedTuple<String>> ties = new ArrayList<>();
+        for (List<String> members : perShard) {
+            if (members != null) {
+                members.forEach(member -> ties.add(TypedTuple.of(member, score)));
+            }
+        }
+        return ties;
+    }
+
+    /**
+     * 모든 샤드에 같은 스크립트를 EVALSHA 파이프라인으로 전송.
+     * 스크립트 캐시가 비어 있는 노드가 있으면(NOSCRIPT) 레지스트리로 재로드하며 샤드별로 다시 실행 (읽기 전용이라 재실행해도 안전).
+     */
+    @SuppressWarnings("unchecked")
+    private <T> List<T> scriptOnAllShards(RedisScript<?> script, Object... args) {
+        RedisSerializer<String> serializer = redisTemplate.getStringSerializer();
+        ReturnType returnType = ReturnType.fromJavaType(script.getResultType());
+        try {
+            return (List<T>) redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (int shard = 0; shard < shardCount; shard++) {
+                    byte[][] keysAndArgs = new byte[args.length + 1][];
+                    keysAndArgs[0] = serializer.serialize(SHARD_KEY_PREFIX + shard);
+                    for (int i = 0; i < args.length; i++) {
+                        keysAndArgs[i + 1] = serializer.serialize(String.valueOf(args[i]));
+                    }
+                    connection.scriptingCommands().evalSha(script.getSha1(), returnType, 1, keysAndArgs);
+                }
+                return null;
+            });
+        } catch (RuntimeException e) {
+            if (!LuaScriptRegistry.isNoScriptError(e)) {
+                throw e;
+            }
+            List<T> results = new ArrayList<>();
+            for (int shard = 0; shard < shardCount; shard++) {
+                results.add((T) scriptRegistry.execute(script, List.of(SHARD_KEY_PREFIX + shard), args));
+            }
+            return results;
+        }
+    }
+
+    /**
+     * 모든 샤드에 같은 명령을 파이프라인으로 전송 (N번 왕복 → 1번 왕복).
+     */
+    @SuppressWarnings("unchecked")
+    private <T> List<T> onAllShards(BiConsumer<ZSetOperations<String, String>, String> command) {
+        return (List<T>) redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                ZSetOperations<String, String> zSet = (ZSetOperations<String, String>) operations.opsForZSet();
+                for (int shard = 0; shard < shardCount; shard++) {
+                    command.accept(zSet, SHARD_KEY_PREFIX + shard);
+                }
+                return null;
+            }
+        });
+    }
+
+    private String shardKey(String userId) {
+        return SHARD_KEY_PREFIX + Math.floorMod(userId.hashCode(), shardCount);
+    }
+
+    private List<TypedTuple<String>> flatten(List<Set<TypedTuple<String>>> perShard) {
+        List<TypedTuple<String>> all = new ArrayList<>();
+        for (Set<TypedTuple<String>> tuples : perShard) {
+            if (tuples != null) {
+                all.addAll(tuples);
+            }
+        }
+        return all;
+    }
+
+    private List<TypedTuple<String>> topOf(List<TypedTuple<String>> tuples, int limit) {
+        return tuples.stream().sorted(RANK_ORDER).limit(limit).toList();
+    }
+
+    private List<RankEntry> toEntries(List<TypedTuple<String>> tuples, long firstRank) {
+        List<RankEntry> entries = new ArrayList<>();
+        for (int i = 0; i < tuples.size(); i++) {
+            TypedTuple<String> tuple = tuples.get(i);
+            entries.add(new RankEntry(tuple.getValue(), tuple.getScore(), firstRank + i));
+        }
+        return entries;
+    }
+
+    private String nextCursor(List<RankEntry> entries, int size) {
+        if (entries.size() < size) {
+            return null; // 마지막 페이지
+        }
+        RankEntry last = entries.get(entries.size() - 1);
+        return last.rank() + ":" + last.score() + ":" + last.userId();
+    }
+}
@@ -0,0 +1,122 @@
+package com.exam.redis.stock;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 재고 블록 임대(Token Bucket Pre-allocation) 방식의 로컬 재고 차감.
+ *
+ * 핫딜 상품은 모든 요청이 같은 키(product:stock:{id})로 몰려 Redis 단일 코어가 병목이 된다.
+ * 각 노드가 재고를 blockSize 단위로 미리 떼어와(lease) 로컬 CAS 카운터로 차감하면,
+ * Redis 접근은 요청당 1회 → 블록당 1회로 줄어든다.
+ *
+ * 동작:
+ * 1. decrease() → 로컬 임대분에서 CAS 차감 (Redis 접근 없음)
+ * 2. 임대분 부족/만료 → 남은 수량 반납 후 새 블록 임대 (상품별 1개 스레드만)
+ * 3. 만료된 임대분은 주기적으로 Redis에 반납, 종료 시 전부 반납
+ *
+ * 트레이드오프:
+ * - 임대된 재고는 다른 노드에서 보이지 않음 → 재고가 거의 소진되면 노드 A는 품절, 노드 B는 재고 보유 가능
+ *   (만료 주기(ttl)가 짧을수록 빨리 재분배됨)
+ * - 노드가 비정상 종료(kill -9)되면 임대분은 유실 → 주기적 재고 정산 필요
+ * - 초과 판매는 발생하지 않음 (임대 자체가 Lua Script로 원자적)
+ */
+@Slf4j
+@Component
+public class LocalStockLeaseManager {
+
+    private final RedisStockCacheRepository redisStockCacheRepository;
+    private final long blockSize;
+    private final long ttlMillis;
+
+    private final Map<Long, StockLease> leases = new ConcurrentHashMap<>();
+    private final Map<Long, Object> refillLocks = new ConcurrentHashMap<>();
+
+    public LocalStockLeaseManager(RedisStockCacheRepository redisStockCacheRepository,
+                                  @Value("${stock.lease.block-size:100}") long blockSize,
+                                  @Value("${stock.lease.ttl-millis:5000}") long ttlMillis) {
+        this.redisStockCacheRepository = redisStockCacheRepository;
+        this.blockSize = blockSize;
+        this.ttlMillis = ttlMillis;
+    }
+
+    /**
+     * 로컬 임대분에서 재고 차감. 부족하면 Redis에서 새 블록을 임대한다.
+     *
+     * @return true: 차감 성공 / false: 전체 재고 부족
+     */
+    public boolean decrease(Long productId, int quantity) {
+        StockLease lease = leases.get(productId);
+        if (lease != null && !lease.isExpired() && lease.tryAcquire(quantity)) {
+            return true; // Fast Path: Redis 접근 없음
+        }
+        return refillAndDecrease(productId, quantity);
+    }
+
+    private boolean refillAndDecrease(Long productId, int quantity) {
+        // 상품별로 한 스레드만 임대 → 동시에 N개 블록을 떼어가는 것 방지
+        synchronized (refillLocks.computeIfAbsent(productId, id -> new Object())) {
+            // 대기하는 동안 다른 스레드가 이미 새 블록을 임대했을 수 있음
+            StockLease current = leases.get(productId);
+            if (current != null && !current.isExpired() && current.tryAcquire(quantity)) {
+                return true;
+            }
+
+            // 남은 자투리 재고 반납 후 새 블록 임대
+            if (current != null) {
+                leases.remove(productId, current);
+                redisStockCacheRepository.giveBack(productId, current.drain());
+            }
+
+            long granted = redisStockCacheRepository.lease(productId, Math.max(blockSize, quantity));
+            if (granted < quantity) {
+                redisStockCacheRepository.giveBack(productId, granted);
+                return false;
+            }
+
+            StockLease refilled = new StockLease(granted - quantity, ttlMillis);
+            leases.put(productId, refilled);
+            return true;
+        }
+    }
+
+    /**
+     * 로컬에 남아 있는 임대 재고 (모니터링용).
+     */
+    public long getLocalRemaining(Long productId) {
+        StockLease lease = leases.get(productId);
+        return lease == null ? 0 : lease.remaining();
+    }
+
+    /**
+     * 만료된 임대분을 Redis에 반납 → 다른 노드가 쓸 수 있도록 재분배.
+     */
+    @Scheduled(fixedDelayString = "${stock.lease.ttl-millis:5000}")
+    public void returnExpiredLeases() {
+        leases.forEach((productId, lease) -> {
+            if (lease.isExpired() && leases.remove(productId, lease)) {
+                redisStockCacheRepository.giveBack(productId, lease.drain());
+            }
+        });
+    }
+
+    /**
+     * 전체 임대분 반납. 정상 종료(Graceful Shutdown) 시 호출된다.
+     */
+    @PreDestroy
+    public void returnAll() {
+        leases.forEach((productId, lease) -> {
+            if (leases.remove(productId, lease)) {
+                long remaining = lease.drain();
+                redisStockCacheRepository.giveBack(productId, remaining);
+                log.info("임대 재고 반납 - productId: {}, quantity: {}", productId, remaining);
+            }
+        });
+    }
+}
@@ -0,0 +1,92 @@
+package com.exam.redis.stock;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.exam.redis.stock.RedisStockCacheRepository.DECREASE_STOCK_AND_LOG_SCRIPT;
+import static com.exam.redis.stock.RedisStockCacheRepository.DECREASE_STOCK_SCRIPT;
+import static com.exam.redis.stock.RedisStockCacheRepository.DECREMENT_STREAM_SHARDS_KEY;
+import static com.exam.redis.stock.RedisStockCacheRepository.KEY_PREFIX;
+import static com.exam.redis.stock.RedisStockCacheRepository.decrementStreamKey;
+
+/**
+ * {@link RedisStockCacheRepository}의 Non-Blocking 버전 (Lettuce 비동기 + ReactiveRedisTemplate).
+ *
+ * 블로킹 RedisTemplate은 Redis 응답이 올 때까지 호출 스레드(서블릿/가상 스레드)를 점유한다.
+ * Reactive 버전은 명령 전송 후 스레드를 반납하고, 응답이 오면 Lettuce 이벤트 루프에서 이어서 처리한다.
+ *   → 소수의 이벤트 루프 스레드로 수천 개의 동시 요청 처리 가능
+ *
+ * 키 구조와 Lua Script는 블로킹 버전과 동일 → 두 저장소를 섞어 써도 같은 재고를 본다.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ReactiveRedisStockCacheRepository {
+
+    private final ReactiveStringRedisTemplate reactiveRedisTemplate;
+
+    // 블로킹 버전과 같은 설정 → 어느 저장소로 차감해도 Write-Behind 스트림에 기록됨
+    @Value("${stock.write-behind.enabled:false}")
+    private boolean writeBehindEnabled;
+
+    // 이미 스트림 샤드 목록에 등록한 상품 (블로킹 버전과 같은 방식)
+    private final Set<Long> registeredStreamShards = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 재고 초기화.
+     */
+    public Mono<Boolean> init(Long productId, int quantity, long ttlSeconds) {
+        return reactiveRedisTemplate.opsForValue()
+            .set(KEY_PREFIX + productId, String.valueOf(quantity), Duration.ofSeconds(ttlSeconds));
+    }
+
+    /**
+     * 재고 조회. 키가 없으면 빈 Mono.
+     */
+    public Mono<Long> getStock(Long productId) {
+        return reactiveRedisTemplate.opsForValue()
+            .get(KEY_PREFIX + productId)
+            .map(Long::parseLong);
+    }
+
+    /**
+     * Lua Script 기반 Atomic 재고 감소.
+     *
+     * ReactiveScriptExecutor도 EVALSHA를 먼저 시도하고, NOSCRIPT면 EVAL로 재실행한다.
+     * stock.write-behind.enabled=true면 차감 이벤트를 스트림에 함께 기록한다.
+     *
+     * @return true: 감소 성공 / false: 재고 부족 또는 키 없음
+     */
+    public Mono<Boolean> decrease(Long productId, int quantity) {
+        String key = KEY_PREFIX + productId;
+        if (!writeBehindEnabled) {
+            return reactiveRedisTemplate.execute(DECREASE_STOCK_SCRIPT, List.of(key), List.of(String.valueOf(quantity)))
+                .next()
+                // -2: 키 없음, -1: 재고 부족, 0 이상: 감소 성공
+                .map(result -> result >= 0);
+        }
+        // 스트림 샤드 등록(SADD)이 끝난 뒤에 차감 → 컨슈머가 모르는 스트림에 이벤트가 쌓이지 않음
+        return registerStreamShard(productId)
+            .then(reactiveRedisTemplate.execute(DECREASE_STOCK_AND_LOG_SCRIPT,
+                    List.of(key, decrementStreamKey(productId)), List.of(String.valueOf(quantity), String.valueOf(productId)))
+                .next())
+            .map(result -> result >= 0);
+    }
+
+    private Mono<Void> registerStreamShard(Long productId) {
+        if (registeredStreamShards.contains(productId)) {
+            return Mono.empty();
+        }
+        return reactiveRedisTemplate.opsForSet()
+            .add(DECREMENT_STREAM_SHARDS_KEY, decrementStreamKey(productId))
+            .doOnSuccess(added -> registeredStreamShards.add(productId))
+            .then();
+    }
+}
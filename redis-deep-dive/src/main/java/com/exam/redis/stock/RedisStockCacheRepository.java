@@ -1,11 +1,29 @@
 package com.exam.redis.stock;
 
+import com.exam.redis.script.LuaScriptRegistry;
+import io.lettuce.core.LettuceFutures;
+import io.lettuce.core.RedisFuture;
+import io.lettuce.core.ScriptOutputType;
+import io.lettuce.core.cluster.SlotHash;
+import io.lettuce.core.cluster.api.async.RedisClusterAsyncCommands;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Repository;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 
 @Repository
@@ -13,8 +31,27 @@ import java.util.concurrent.TimeUnit;
 public class RedisStockCacheRepository {
 
     private final RedisTemplate<String, String> redisTemplate;
+    private final LuaScriptRegistry scriptRegistry;
 
-    private static final String KEY_PREFIX = "product:stock:";
+    // true면 decrease() 성공 시 차감 이벤트를 같은 Lua Script 안에서 스트림에 기록
+    @Value("${stock.write-behind.enabled:false}")
+    private boolean writeBehindEnabled;
+
+    static final String KEY_PREFIX = "product:stock:";
+
+    // 재고 차감 이벤트 스트림 (Write-Behind: StockWriteBehindConsumer가 DB에 반영)
+    //   stock:decrements:{product:stock:<id>} → 해시 태그가 재고 키 전체라 Cluster에서도 재고 키와 같은 슬롯
+    //   → 차감과 XADD를 한 Lua Script로 묶을 수 있음 (스트림 1개로 두면 CROSSSLOT)
+    static final String DECREMENT_STREAM_PREFIX = "stock:decrements:";
+
+    // 스트림 샤드 목록 (SET) — 컨슈머가 이 목록의 스트림을 모두 읽음
+    public static final String DECREMENT_STREAM_SHARDS_KEY = "stock:decrements:shards";
+
+    // 이 인스턴스가 이미 샤드 목록에 등록한 상품 (차감마다 SADD 왕복을 하지 않도록)
+    private final Set<Long> registeredStreamShards = ConcurrentHashMap.newKeySet();
+
+    // 슬롯이 나뉜 장바구니를 파이프라인으로 보낼 때 전체 응답을 기다리는 최대 시간
+    private static final Duration PIPELINE_TIMEOUT = Duration.ofSeconds(3);
 
     // ─── Lua Script — Atomic 재고 감소 ──────────────────────────────────────
     //
@@ -28,7 +65,7 @@ public class RedisStockCacheRepository {
     //   >= 0 : 감소 성공 (반환값 = 감소 후 남은 재고)
     //    -1  : 재고 부족
     //    -2  : 키 없음 (재고 미초기화)
-    private static final RedisScript<Long> DECREASE_STOCK_SCRIPT = RedisScript.of(
+    static final RedisScript<Long> DECREASE_STOCK_SCRIPT = RedisScript.of(
         """
         local stock = tonumber(redis.call('GET', KEYS[1]))
         if stock == nil then
@@ -42,6 +79,180 @@ public class RedisStockCacheRepository {
         Long.class
     );
 
+    // ─── Lua Script — Atomic 재고 감소 + 차감 이벤트 기록 (Write-Behind) ─────
+    //
+    // DECRBY와 XADD를 하나의 스크립트로 묶음
+    //   → "Redis는 차감됐는데 이벤트는 유실" 같은 중간 상태가 없음
+    //
+    // KEYS[2]는 decrementStreamKey() → 재고 키와 같은 슬롯이라 Cluster에서도 CROSSSLOT 없음
+    //
+    // 반환값: DECREASE_STOCK_SCRIPT와 동일
+    static final RedisScript<Long> DECREASE_STOCK_AND_LOG_SCRIPT = RedisScript.of(
+        """
+        local stock = tonumber(redis.call('GET', KEYS[1]))
+        if stock == nil then
+            return -2
+        end
+        if stock < tonumber(ARGV[1]) then
+            return -1
+        end
+        local remaining = redis.call('DECRBY', KEYS[1], ARGV[1])
+        redis.call('XADD', KEYS[2], '*', 'productId', ARGV[2], 'quantity', ARGV[1])
+        return remaining
+        """,
+        Long.class
+    );
+
+    // ─── Lua Script — 장바구니 단위 Atomic 재고 감소 ─────────────────────────
+    //
+    // 상품 N개를 N번의 EVALSHA 대신 1번의 왕복으로 [검증 → 차감] 처리 (all-or-nothing).
+    //   1단계: 모든 키의 재고를 검증 → 하나라도 부족하면 아무것도 차감하지 않고 종료
+    //   2단계: 전부 충분할 때만 DECRBY
+    //
+    // 주의: Redis Cluster에서 Lua Script의 KEYS는 모두 같은 해시 슬롯이어야 함
+    //   → 슬롯이 여러 개로 나뉘면 decreaseAll()이 슬롯 그룹별로 나눠 실행
+    //
+    // 반환값:
+    //    0  : 전체 차감 성공
+    //   i>0 : KEYS[i]의 재고 부족 또는 키 없음 (1-based 인덱스)
+    private static final RedisScript<Long> DECREASE_ALL_STOCK_SCRIPT = RedisScript.of(
+        """
+        for i = 1, #KEYS do
+            local stock = tonumber(redis.call('GET', KEYS[i]))
+            if stock == nil or stock < tonumber(ARGV[i]) then
+                return i
+            end
+        end
+        for i = 1, #KEYS do
+            redis.call('DECRBY', KEYS[i], ARGV[i])
+        end
+        return 0
+        """,
+        Long.class
+    );
+
+    // ─── Lua Script — 장바구니 단위 Atomic 재고 감소 + 차감 이벤트 기록 (Write-Behind) ─
+    //
+    // KEYS[1..n]: 재고 키, KEYS[n+1..2n]: 각 상품의 스트림, ARGV[1..n]: 수량, ARGV[n+1..2n]: 상품 ID
+    // 슬롯이 나뉜 장바구니도 슬롯 그룹마다 이 스크립트를 실행 → 그룹 단위로 차감과 이벤트가 원자적
+    // 반환값: DECREASE_ALL_STOCK_SCRIPT와 동일
+    private static final RedisScript<Long> DECREASE_ALL_STOCK_AND_LOG_SCRIPT = RedisScript.of(
+        """
+        local n = #KEYS / 2
+        for i = 1, n do
+            local stock = tonumber(redis.call('GET', KEYS[i]))
+            if stock == nil or stock < tonumber(ARGV[i]) then
+                return i
+            end
+        end
+        for i = 1, n do
+            redis.call('DECRBY', KEYS[i], ARGV[i])
+            redis.call('XADD', KEYS[n + i], '*', 'productId', ARGV[n + i], 'quantity', ARGV[i])
+        end
+        return 0
+        """,
+        Long.class
+    );
+
+    // ─── Lua Script — 보상(원복) ────────────────────────────────────────────
+    //
+    // 슬롯 그룹 중 하나가 실패했을 때 이미 차감에 성공한 그룹을 되돌리거나,
+    // 로컬 임대(Lease) 재고 중 쓰지 않은 수량을 반납할 때 사용.
+    // 그 사이 TTL로 만료된 키는 되살리지 않음 (TTL 없는 키가 생기는 것 방지)
+    private static final RedisScript<Long> RESTORE_STOCK_SCRIPT = RedisScript.of(
+        """
+        for i = 1, #KEYS do
+            if redis.call('EXISTS', KEYS[i]) == 1 then
+                redis.call('INCRBY', KEYS[i], ARGV[i])
+            end
+        end
+        return #KEYS
+        """,
+        Long.class
+    );
+
+    // ─── Lua Script — 재고 블록 임대 (Lease) ───────────────────────────────
+    //
+    // 요청한 블록 크기만큼(남은 재고가 적으면 남은 만큼) 한 번에 떼어감.
+    // 각 앱 노드는 임대받은 재고를 로컬에서 차감 → Hot Key에 매 요청마다 접근하지 않음
+    //
+    // 반환값:
+    //   >= 0 : 실제로 임대된 수량 (0이면 재고 소진)
+    //    -2  : 키 없음 (재고 미초기화)
+    private static final RedisScript<Long> LEASE_STOCK_SCRIPT = RedisScript.of(
+        """
+        local stock = tonumber(redis.call('GET', KEYS[1]))
+        if stock == nil then
+            return -2
+        end
+        local granted = math.min(stock, tonumber(ARGV[1]))
+        if granted > 0 then
+            redis.call('DECRBY', KEYS[1], granted)
+        end
+        return granted
+        """,
+        Long.class
+    );
+
+    // ─── Lua Script — 임대 / 반납 + 이벤트 기록 (Write-Behind) ─────────────────
+    //
+    // 임대된 블록은 Redis에서 빠지는 순간 차감 이벤트로, 반납분은 음수 수량 이벤트로 기록
+    //   → 로컬 판매마다 Redis에 접근하지 않으면서도, 반납까지 끝나면 DB 재고 = Redis 재고
+    //
+    // 임대: KEYS[1]: 재고 키, KEYS[2]: 스트림, ARGV[1]: 블록 크기, ARGV[2]: 상품 ID
+    private static final RedisScript<Long> LEASE_STOCK_AND_LOG_SCRIPT = RedisScript.of(
+        """
+        local stock = tonumber(redis.call('GET', KEYS[1]))
+        if stock == nil then
+            return -2
+        end
+        local granted = math.min(stock, tonumber(ARGV[1]))
+        if granted > 0 then
+            redis.call('DECRBY', KEYS[1], granted)
+            redis.call('XADD', KEYS[2], '*', 'productId', ARGV[2], 'quantity', granted)
+        end
+        return granted
+        """,
+        Long.class
+    );
+
+    // 반납/보상: KEYS[1..n]: 재고 키, KEYS[n+1..2n]: 스트림, ARGV[1..n]: 수량, ARGV[n+1..2n]: 상품 ID
+    private static final RedisScript<Long> RESTORE_STOCK_AND_LOG_SCRIPT = RedisScript.of(
+        """
+        local n = #KEYS / 2
+        for i = 1, n do
+            if redis.call('EXISTS', KEYS[i]) == 1 then
+                redis.call('INCRBY', KEYS[i], ARGV[i])
+                redis.call('XADD', KEYS[n + i], '*', 'productId', ARGV[n + i], 'quantity', '-' .. ARGV[i])
+            end
+        end
+        return n
+        """,
+        Long.class
+    );
+
+    /**
+     * 스크립트 등록 → 기동 시 SCRIPT LOAD, 이후 EVALSHA로만 실행.
+     */
+    @PostConstruct
+    void registerScripts() {
+        scriptRegistry.register("stock.decrease", DECREASE_STOCK_SCRIPT);
+        scriptRegistry.register("stock.decrease-and-log", DECREASE_STOCK_AND_LOG_SCRIPT);
+        scriptRegistry.register("stock.decrease-all", DECREASE_ALL_STOCK_SCRIPT);
+        scriptRegistry.register("stock.decrease-all-and-log", DECREASE_ALL_STOCK_AND_LOG_SCRIPT);
+        scriptRegistry.register("stock.restore", RESTORE_STOCK_SCRIPT);
+        scriptRegistry.register("stock.restore-and-log", RESTORE_STOCK_AND_LOG_SCRIPT);
+        scriptRegistry.register("stock.lease", LEASE_STOCK_SCRIPT);
+        scriptRegistry.register("stock.lease-and-log", LEASE_STOCK_AND_LOG_SCRIPT);
+    }
+
+    /**
+     * 상품의 차감 이벤트 스트림 키. 해시 태그 = 재고 키 → Cluster에서 재고 키와 같은 슬롯.
+     */
+    public static String decrementStreamKey(Long productId) {
+        return DECREMENT_STREAM_PREFIX + "{" + KEY_PREFIX + productId + "}";
+    }
+
     /**
      * 재고 초기화.
      */
@@ -60,22 +271,274 @@ public class RedisStockCacheRepository {
 
     /**
      * Lua Script 기반 Atomic 재고 감소.
+     * stock.write-behind.enabled=true면 차감 이벤트를 스트림에 함께 기록한다.
      *
      * @return true: 감소 성공 / false: 재고 부족 또는 키 없음
      */
     public boolean decrease(Long productId, int quantity) {
         String key = KEY_PREFIX + productId;
+        if (writeBehindEnabled) {
+            registerStreamShards(List.of(productId));
+        }
 
-        Long result = redisTemplate.execute(
-            DECREASE_STOCK_SCRIPT,
-            List.of(key),
-            String.valueOf(quantity)
-        );
+        Long result = writeBehindEnabled
+            ? scriptRegistry.execute(
+                DECREASE_STOCK_AND_LOG_SCRIPT,
+                List.of(key, decrementStreamKey(productId)),
+                String.valueOf(quantity),
+                String.valueOf(productId))
+            : scriptRegistry.execute(
+                DECREASE_STOCK_SCRIPT,
+                List.of(key),
+                String.valueOf(quantity));
 
         // -2: 키 없음, -1: 재고 부족, 0 이상: 감소 성공
         return result >= 0;
     }
 
+    /**
+     * 재고 블록 임대. 로컬 카운터({@link LocalStockLeaseManager})가 사용.
+     * stock.write-behind.enabled=true면 임대된 수량을 차감 이벤트로 함께 기록한다.
+     *
+     * @return 임대된 수량 (재고 소진 또는 키 없음이면 0)
+     */
+    public long lease(Long productId, long blockSize) {
+        String key = KEY_PREFIX + productId;
+        if (writeBehindEnabled) {
+            registerStreamShards(List.of(productId));
+        }
+        Long granted = writeBehindEnabled
+            ? scriptRegistry.execute(
+                LEASE_STOCK_AND_LOG_SCRIPT,
+                List.of(key, decrementStreamKey(productId)),
+                String.valueOf(blockSize),
+                String.valueOf(productId))
+            : scriptRegistry.execute(
+                LEASE_STOCK_SCRIPT,
+                List.of(key),
+                String.valueOf(blockSize));
+        return Math.max(granted, 0);
+    }
+
+    /**
+     * 사용하지 않은 임대 재고 반납.
+     * stock.write-behind.enabled=true면 반납 수량을 음수 차감 이벤트로 함께 기록한다.
+     */
+    public void giveBack(Long productId, long quantity) {
+        if (quantity <= 0) {
+            return;
+        }
+        List<Long> productIds = List.of(productId);
+        Map<Long, Long> quantities = Map.of(productId, quantity);
+        if (writeBehindEnabled) {
+            registerStreamShards(productIds);
+        }
+        scriptRegistry.execute(restoreScript(), decreaseKeys(productIds), decreaseArgs(productIds, quantities));
+    }
+
+    /**
+     * 장바구니 단위 재고 감소 (all-or-nothing).
+     *
+     * <p>모든 키가 같은 노드(단일 Redis 또는 같은 해시 슬롯)면 Lua Script 1회로 원자적으로 처리.
+     * Cluster에서 슬롯이 여러 개로 나뉘면 슬롯 그룹별 스크립트를 파이프라인으로 한 번에 보내고,
+     * 하나라도 실패하면 성공한 그룹을 원복(보상)한다.
+     * 이 경우 원복 전까지 다른 요청이 일시적으로 재고 부족을 볼 수 있지만, 초과 판매는 발생하지 않는다.
+     *
+     * <p>stock.write-behind.enabled=true면 차감 이벤트도 기록한다.
+     * 스트림이 상품별 재고 키와 같은 슬롯이므로, 슬롯이 나뉘어도 그룹마다 같은 스크립트 안에서 기록하고
+     * 보상(원복)도 음수 이벤트와 함께 원자적으로 처리한다.
+     *
+     * @param quantities 상품 ID → 차감 수량
+     * @return 성공 여부와, 실패 시 재고가 부족했던 상품 ID
+     * @throws IllegalArgumentException 수량이 null이거나 0 이하인 상품이 있으면 (Redis에 아무것도 보내지 않음)
+     */
+    public StockDecreaseResult decreaseAll(Map<Long, Integer> quantities) {
+        if (quantities.isEmpty()) {
+            return StockDecreaseResult.ok();
+        }
+        // 음수 수량은 스크립트의 재고 비교를 통과하고 DECRBY로 재고를 늘림 → 스크립트 실행 전에 거부
+        quantities.forEach((productId, quantity) -> {
+            if (quantity == null || quantity <= 0) {
+                throw new IllegalArgumentException("Quantity must be positive: productId=" + productId + ", quantity=" + quantity);
+            }
+        });
+
+        // 상품 ID 정렬 → 스크립트 반환 인덱스와 상품 ID의 매핑을 결정적으로 유지
+        List<List<Long>> slotGroups = groupBySlot(quantities.keySet().stream().sorted().toList());
+        if (writeBehindEnabled) {
+            registerStreamShards(quantities.keySet());
+        }
+
+        if (slotGroups.size() == 1) {
+            List<Long> productIds = slotGroups.get(0);
+            Long result = scriptRegistry.execute(
+                decreaseAllScript(), decreaseKeys(productIds), decreaseArgs(productIds, quantities));
+            return result == 0 ? StockDecreaseResult.ok() : StockDecreaseResult.shortOf(productIds.get(result.intValue() - 1));
+        }
+
+        return decreaseAcrossSlots(slotGroups, quantities);
+    }
+
+    /**
+     * 스트림 샤드 등록 (SADD). 차감 스크립트보다 먼저 실행
+     *   → 등록 후 스크립트가 실패해도 빈 샤드만 남을 뿐, 컨슈머가 모르는 스트림에 이벤트가 쌓이지 않음.
+     * 등록은 지우지 않으므로 인스턴스별로 한 번만 보낸다.
+     */
+    private void registerStreamShards(Collection<Long> productIds) {
+        List<Long> unregistered = productIds.stream()
+            .filter(id -> !registeredStreamShards.contains(id))
+            .toList();
+        if (unregistered.isEmpty()) {
+            return;
+        }
+        redisTemplate.opsForSet().add(DECREMENT_STREAM_SHARDS_KEY,
+            unregistered.stream().map(RedisStockCacheRepository::decrementStreamKey).toArray(String[]::new));
+        registeredStreamShards.addAll(unregistered);
+    }
+
+    private StockDecreaseResult decreaseAcrossSlots(List<List<Long>> slotGroups, Map<Long, Integer> quantities) {
+        List<GroupReply> replies = redisTemplate.execute((RedisCallback<List<GroupReply>>) connection -> {
+            @SuppressWarnings("unchecked")
+            RedisClusterAsyncCommands<byte[], byte[]> async =
+                (RedisClusterAsyncCommands<byte[], byte[]>) connection.getNativeConnection();
+
+            // 응답을 기다리지 않고 슬롯 그룹별 EVALSHA를 연속 전송 → 노드별로 파이프라이닝됨
+            List<RedisFuture<Long>> futures = new ArrayList<>();
+            for (List<Long> group : slotGroups) {
+                futures.add(async.evalsha(
+                    decreaseAllScript().getSha1(),
+                    ScriptOutputType.INTEGER,
+                    toBytes(decreaseKeys(group).toArray()),
+                    toBytes(decreaseArgs(group, quantities))
+                ));
+            }
+
+            // 하나가 실패해도 나머지 응답을 모두 받아야 성공한 그룹을 원복할 수 있음
+            List<GroupReply> collected = new ArrayList<>();
+            for (RedisFuture<Long> future : futures) {
+                try {
+                    collected.add(GroupReply.of(
+                        LettuceFutures.awaitOrCancel(future, PIPELINE_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)));
+                } catch (RuntimeException e) {
+                    // NOSCRIPT: 해당 노드에 스크립트 없음 → 아래에서 재로드 후 재실행
+                    collected.add(LuaScriptRegistry.isNoScriptError(e) ? GroupReply.NO_SCRIPT : GroupReply.failed(e));
+                }
+            }
+            return collected;
+        });
+
+        for (int i = 0; i < slotGroups.size(); i++) {
+            if (replies.get(i) == GroupReply.NO_SCRIPT) {
+                List<Long> group = slotGroups.get(i);
+                try {
+                    replies.set(i, GroupReply.of(
+                        scriptRegistry.execute(decreaseAllScript(), decreaseKeys(group), decreaseArgs(group, quantities))));
+                } catch (RuntimeException e) {
+                    replies.set(i, GroupReply.failed(e));
+                }
+            }
+        }
+
+        RuntimeException failure = null;
+        Long shortProductId = null;
+        for (int i = 0; i < slotGroups.size(); i++) {
+            GroupReply reply = replies.get(i);
+            if (reply.error() != null) {
+                failure = failure == null ? reply.error() : failure;
+            } else if (reply.result() != 0 && shortProductId == null) {
+                shortProductId = slotGroups.get(i).get(reply.result().intValue() - 1);
+            }
+        }
+        if (failure == null && shortProductId == null) {
+            return StockDecreaseResult.ok();
+        }
+
+        // 보상: 차감에 성공한(0을 응답한) 슬롯 그룹만 원복
+        // 타임아웃/연결 오류 그룹은 실제 실행 여부를 알 수 없으므로 원복하지 않음 (초과 판매보다 과소 판매가 안전)
+        for (int i = 0; i < slotGroups.size(); i++) {
+            GroupReply reply = replies.get(i);
+            if (reply.error() == null && reply.result() == 0) {
+                List<Long> group = slotGroups.get(i);
+                scriptRegistry.execute(restoreScript(), decreaseKeys(group), decreaseArgs(group, quantities));
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        return StockDecreaseResult.shortOf(shortProductId);
+    }
+
+    /**
+     * 슬롯 그룹 1개의 응답: 스크립트 결과 또는 실패 원인.
+     */
+    private record GroupReply(Long result, RuntimeException error) {
+
+        static final GroupReply NO_SCRIPT = new GroupReply(null, null);
+
+        static GroupReply of(Long result) {
+            return new GroupReply(result, null);
+        }
+
+        static GroupReply failed(RuntimeException error) {
+            return new GroupReply(null, error);
+        }
+    }
+
+    // Cluster가 아니면 전체를 한 그룹으로, Cluster면 해시 슬롯별로 묶음
+    private List<List<Long>> groupBySlot(List<Long> productIds) {
+        if (!isCluster()) {
+            return List.of(productIds);
+        }
+        Map<Integer, List<Long>> groups = new TreeMap<>();
+        for (Long productId : productIds) {
+            int slot = SlotHash.getSlot(KEY_PREFIX + productId);
+            groups.computeIfAbsent(slot, k -> new ArrayList<>()).add(productId);
+        }
+        return new ArrayList<>(groups.values());
+    }
+
+    private boolean isCluster() {
+        return redisTemplate.getConnectionFactory() instanceof LettuceConnectionFactory factory
+            && factory.isClusterAware();
+    }
+
+    // Write-Behind 여부에 따라 장바구니 차감 / 원복 스크립트와 KEYS, ARGV 구성을 고름
+    private RedisScript<Long> decreaseAllScript() {
+        return writeBehindEnabled ? DECREASE_ALL_STOCK_AND_LOG_SCRIPT : DECREASE_ALL_STOCK_SCRIPT;
+    }
+
+    private RedisScript<Long> restoreScript() {
+        return writeBehindEnabled ? RESTORE_STOCK_AND_LOG_SCRIPT : RESTORE_STOCK_SCRIPT;
+    }
+
+    // 재고 키 (+ Write-Behind면 상품별 스트림 키)
+    private List<String> decreaseKeys(List<Long> productIds) {
+        List<String> keys = new ArrayList<>();
+        productIds.forEach(id -> keys.add(KEY_PREFIX + id));
+        if (writeBehindEnabled) {
+            productIds.forEach(id -> keys.add(decrementStreamKey(id)));
+        }
+        return keys;
+    }
+
+    // 수량 (+ Write-Behind면 상품 ID)
+    private Object[] decreaseArgs(List<Long> productIds, Map<Long, ? extends Number> quantities) {
+        List<Object> args = new ArrayList<>();
+        productIds.forEach(id -> args.add(String.valueOf(quantities.get(id))));
+        if (writeBehindEnabled) {
+            productIds.forEach(id -> args.add(String.valueOf(id)));
+        }
+        return args.toArray();
+    }
+
+    private static byte[][] toBytes(Object[] values) {
+        byte[][] bytes = new byte[values.length][];
+        for (int i = 0; i < values.length; i++) {
+            bytes[i] = values[i].toString().getBytes(StandardCharsets.UTF_8);
+        }
+        return bytes;
+    }
+
     // ─── [Race Condition 재현] DECR 방식 — 실무에서 사용하지 말 것 ───────────
     //
     // GET 없이 DECR 후 음수 체크 + INCR 복구 방식의 문제:
@@ -0,0 +1,18 @@
+package com.exam.redis.stock;
+
+/**
+ * 장바구니 단위 재고 차감 결과.
+ *
+ * @param success        전체 차감 성공 여부 (all-or-nothing)
+ * @param shortProductId 실패 시 재고가 부족했던(또는 미초기화된) 상품 ID, 성공 시 null
+ */
+public record StockDecreaseResult(boolean success, Long shortProductId) {
+
+    public static StockDecreaseResult ok() {
+        return new StockDecreaseResult(true, null);
+    }
+
+    public static StockDecreaseResult shortOf(Long productId) {
+        return new StockDecreaseResult(false, productId);
+    }
+}
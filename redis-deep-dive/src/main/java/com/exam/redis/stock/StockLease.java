@@ -0,0 +1,49 @@
+package com.exam.redis.stock;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 한 앱 노드가 Redis에서 임대받은 재고 블록.
+ *
+ * 차감은 CAS 루프로만 처리 → 락 없이 여러 스레드가 동시에 차감 가능.
+ */
+class StockLease {
+
+    private final AtomicLong remaining;
+    private final long expiresAtMillis;
+
+    StockLease(long granted, long ttlMillis) {
+        this.remaining = new AtomicLong(granted);
+        this.expiresAtMillis = System.currentTimeMillis() + ttlMillis;
+    }
+
+    /**
+     * 로컬 재고 차감. 남은 수량이 부족하면 아무것도 차감하지 않고 false.
+     */
+    boolean tryAcquire(long quantity) {
+        while (true) {
+            long current = remaining.get();
+            if (current < quantity) {
+                return false;
+            }
+            if (remaining.compareAndSet(current, current - quantity)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * 남은 수량을 전부 회수 (반납용). 이후 tryAcquire는 실패한다.
+     */
+    long drain() {
+        return remaining.getAndSet(0);
+    }
+
+    boolean isExpired() {
+        return System.currentTimeMillis() >= expiresAtMillis;
+    }
+
+    long remaining() {
+        return remaining.get();
+    }
+}
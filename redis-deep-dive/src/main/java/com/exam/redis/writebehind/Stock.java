@@ -0,0 +1,32 @@
+package com.exam.redis.writebehind;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * DB 재고 테이블 (lock 모듈의 Stock 엔티티와 같은 stock 테이블 구조).
+ *
+ * Redis가 재고 게이트 역할을 하고, DB에는 Write-Behind로 모아서 반영한다.
+ */
+@Entity
+@Getter
+@NoArgsConstructor
+public class Stock {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private Long productId;
+
+    private Long quantity;
+
+    @Version
+    private Long version;
+
+    public Stock(Long productId, Long quantity) {
+        this.productId = productId;
+        this.quantity = quantity;
+    }
+}
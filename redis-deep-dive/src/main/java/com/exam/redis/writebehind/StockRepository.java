@@ -0,0 +1,19 @@
+package com.exam.redis.writebehind;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface StockRepository extends JpaRepository<Stock, Long> {
+
+    Optional<Stock> findByProductId(Long productId);
+
+    // 엔티티 로딩 없이 UPDATE 1번으로 차감 (Dirty Checking X)
+    // 벌크 연산은 @Version을 올리지 않으므로 직접 증가 → 낙관적 락을 쓰는 다른 쓰기와 공존
+    @Modifying
+    @Query("update Stock s set s.quantity = s.quantity - :quantity, s.version = s.version + 1 where s.productId = :productId")
+    int decreaseQuantity(@Param("productId") Long productId, @Param("quantity") Long quantity);
+}
@@ -0,0 +1,279 @@
+package com.exam.redis.writebehind;
+
+import com.exam.redis.script.LuaScriptRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.Limit;
+import org.springframework.data.redis.connection.stream.Consumer;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.ReadOffset;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.connection.stream.StreamReadOptions;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StreamOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.exam.redis.stock.RedisStockCacheRepository.DECREMENT_STREAM_SHARDS_KEY;
+
+/**
+ * Redis 재고 차감 이벤트를 DB stock 테이블에 모아서 반영하는 Write-Behind 컨슈머.
+ *
+ * Redis가 재고 게이트 역할을 하고 DB는 판매 건마다 Row Lock을 잡지 않는다.
+ * flush 주기마다 스트림 엔트리를 상품별로 합산해 상품당 UPDATE 1번만 실행한다.
+ *   100건 판매 (같은 상품) → UPDATE stock SET quantity = quantity - 100 1번
+ *
+ * 이벤트를 기록하는 차감 경로 (모두 차감과 같은 Lua Script 안에서 XADD):
+ * - decrease() / Reactive decrease() : 차감 수량
+ * - decreaseAll()                     : 상품별 차감 수량 (슬롯이 나뉘면 슬롯 그룹마다, 보상은 음수 수량)
+ * - lease() / giveBack()              : 임대 블록은 차감, 반납분은 음수 수량
+ *
+ * 스트림 샤드:
+ *   Cluster에서 차감과 XADD를 한 스크립트로 묶으려면 스트림이 재고 키와 같은 슬롯이어야 하므로
+ *   상품마다 stock:decrements:{product:stock:<id>} 스트림을 쓴다.
+ *   차감 경로가 스크립트 실행 전에 stock:decrements:shards(SET)에 등록 → flush마다 등록된 샤드를 모두 읽는다.
+ *   (샤드 수 = 판매된 상품 수 → flush 1회당 샤드 수만큼 XREADGROUP 왕복)
+ *
+ * 컨슈머 이름:
+ *   PEL과 체크포인트가 컨슈머 이름에 묶여 있으므로 인스턴스마다 고유하고 재기동해도 바뀌지 않아야 한다.
+ *   (Deployment의 Pod 이름(HOSTNAME)은 재시작마다 바뀜 → StatefulSet 순번 등 고정 이름을 설정)
+ *
+ * 크래시 안전성:
+ * 1. XREADGROUP으로 읽은 엔트리는 XACK 전까지 PEL(Pending Entries List)에 남음
+ * 2. flush 시 샤드마다 자기 PEL("0")을 먼저 다시 읽음 → DB 반영 전에 죽었으면 재처리
+ * 3. DB 반영과 샤드별 체크포인트 저장은 같은 트랜잭션 → 커밋 후 XACK 전에 죽어도 중복 차감 없음
+ * 4. XACK + XDEL은 Lua Script로 원자 처리 → 스트림 길이 = DB 미반영 엔트리 수
+ *
+ * 메트릭:
+ * - stock.write-behind.lag         : DB에 아직 반영되지 않은 엔트리 수 (모든 샤드의 XLEN 합)
+ * - stock.write-behind.lag.seconds : 가장 오래된 미반영 엔트리의 나이
+ * - stock.write-behind.applied     : DB에 반영된 엔트리 수
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "stock.write-behind.enabled", havingValue = "true")
+public class StockWriteBehindConsumer {
+
+    private static final String GROUP = "stock-writer";
+
+    // 스트림 ID(ms-seq) 순서 비교
+    private static final Comparator<RecordId> RECORD_ID_ORDER =
+        Comparator.comparing(RecordId::getTimestamp).thenComparing(RecordId::getSequence);
+
+    // XACK + XDEL 원자 처리: ARGV[1]=group, ARGV[2..]=entry ids
+    private static final RedisScript<Long> ACK_AND_DELETE_SCRIPT = RedisScript.of(
+        """
+        redis.call('XACK', KEYS[1], ARGV[1], unpack(ARGV, 2))
+        return redis.call('XDEL', KEYS[1], unpack(ARGV, 2))
+        """,
+        Long.class
+    );
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final LuaScriptRegistry scriptRegistry;
+    private final StockRepository stockRepository;
+    private final WriteBehindCheckpointRepository checkpointRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final String consumerName;
+    private final int batchSize;
+
+    // 컨슈머 그룹을 만든 샤드 (샤드마다 XGROUP CREATE 1번)
+    private final Set<String> groupCreatedShards = ConcurrentHashMap.newKeySet();
+
+    private final AtomicLong lagEntries = new AtomicLong();
+    private final AtomicLong lagSeconds = new AtomicLong();
+    private final Counter appliedCounter;
+
+    public StockWriteBehindConsumer(RedisTemplate<String, String> redisTemplate,
+                                    LuaScriptRegistry scriptRegistry,
+                                    StockRepository stockRepository,
+                                    WriteBehindCheckpointRepository checkpointRepository,
+                                    TransactionTemplate transactionTemplate,
+                                    MeterRegistry meterRegistry,
+                                    // 재기동 후에도 같은 이름이어야 자기 PEL을 다시 읽을 수 있음
+                                    @Value("${stock.write-behind.consumer-name:stock-writer-1}") String consumerName,
+                                    // 샤드당 flush 1회 최대 엔트리 수
+                                    @Value("${stock.write-behind.batch-size:500}") int batchSize) {
+        this.redisTemplate = redisTemplate;
+        this.scriptRegistry = scriptRegistry;
+        this.stockRepository = stockRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.consumerName = consumerName;
+        this.batchSize = batchSize;
+
+        meterRegistry.gauge("stock.write-behind.lag", lagEntries);
+        meterRegistry.gauge("stock.write-behind.lag.seconds", lagSeconds);
+        this.appliedCounter = Counter.builder("stock.write-behind.applied")
+            .description("Stream entries applied to the stock table")
+            .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void init() {
+        scriptRegistry.register("stock.write-behind.ack", ACK_AND_DELETE_SCRIPT);
+    }
+
+    /**
+     * 등록된 모든 스트림 샤드의 엔트리를 읽어 상품별로 합산 후 DB에 반영.
+     * 스케줄러와 수동 호출이 겹치면 같은 PEL을 두 번 반영할 수 있으므로 한 번에 하나만 실행.
+     */
+    @Scheduled(fixedDelayString = "${stock.write-behind.flush-interval-millis:1000}")
+    public synchronized void flush() {
+        Set<String> shards = streamShards();
+
+        Map<String, List<MapRecord<String, String, String>>> batches = new LinkedHashMap<>();
+        for (String shard : shards) {
+            ensureGroup(shard);
+            // 1. 이전에 읽었지만 ACK 못 한 엔트리(크래시 등) 먼저 처리
+            List<MapRecord<String, String, String>> records = read(shard, ReadOffset.from("0"));
+            // 2. 없으면 새 엔트리
+            if (records.isEmpty()) {
+                records = read(shard, ReadOffset.lastConsumed());
+            }
+            if (!records.isEmpty()) {
+                batches.put(shard, records);
+            }
+        }
+
+        if (!batches.isEmpty()) {
+            apply(batches);
+        }
+        updateLag(shards);
+    }
+
+    private void apply(Map<String, List<MapRecord<String, String, String>>> batches) {
+        // 상품 ID 정렬 → 여러 노드가 동시에 flush해도 Row Lock 획득 순서가 같아 데드락 없음
+        Map<Long, Long> coalesced = new TreeMap<>();
+        List<WriteBehindCheckpoint> checkpoints = new ArrayList<>();
+        int entries = 0;
+        for (Map.Entry<String, List<MapRecord<String, String, String>>> batch : batches.entrySet()) {
+            String checkpointId = checkpointId(batch.getKey());
+            RecordId checkpoint = checkpointRepository.findById(checkpointId)
+                .map(c -> RecordId.of(c.getLastEntryId()))
+                .orElse(null);
+
+            RecordId lastId = null;
+            for (MapRecord<String, String, String> record : batch.getValue()) {
+                lastId = record.getId();
+                if (checkpoint != null && RECORD_ID_ORDER.compare(record.getId(), checkpoint) <= 0) {
+                    continue; // 이미 DB에 반영됨 (커밋 후 XACK 전에 죽은 경우)
+                }
+                Map<String, String> value = record.getValue();
+                coalesced.merge(Long.valueOf(value.get("productId")), Long.valueOf(value.get("quantity")), Long::sum);
+            }
+            checkpoints.add(new WriteBehindCheckpoint(checkpointId, lastId.getValue()));
+            entries += batch.getValue().size();
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            coalesced.forEach((productId, quantity) -> {
+                int updated = stockRepository.decreaseQuantity(productId, quantity);
+                if (updated == 0) {
+                    log.warn("Write-Behind 대상 재고 없음 - productId: {}, quantity: {}", productId, quantity);
+                }
+            });
+            checkpointRepository.saveAll(checkpoints);
+        });
+
+        // DB 커밋 이후에만 ACK (샤드마다 — 스트림 키가 슬롯별로 다를 수 있음)
+        batches.forEach((shard, records) -> {
+            List<Object> args = new ArrayList<>();
+            args.add(GROUP);
+            records.forEach(record -> args.add(record.getId().getValue()));
+            scriptRegistry.execute(ACK_AND_DELETE_SCRIPT, List.of(shard), args.toArray());
+        });
+
+        appliedCounter.increment(entries);
+        log.debug("Write-Behind 반영 - shards: {}, entries: {}, products: {}", batches.size(), entries, coalesced.size());
+    }
+
+    // 샤드 키 정렬 → flush마다 같은 순서로 읽음
+    private Set<String> streamShards() {
+        Set<String> members = redisTemplate.opsForSet().members(DECREMENT_STREAM_SHARDS_KEY);
+        return members == null ? Set.of() : new TreeSet<>(members);
+    }
+
+    // 컨슈머 그룹 생성 (스트림이 없으면 MKSTREAM으로 함께 생성, "0"부터 → 그룹 생성 전에 쌓인 엔트리도 읽음)
+    private void ensureGroup(String shard) {
+        if (groupCreatedShards.contains(shard)) {
+            return;
+        }
+        try {
+            redisTemplate.execute((RedisCallback<String>) connection -> connection.streamCommands()
+                .xGroupCreate(shard.getBytes(StandardCharsets.UTF_8), GROUP, ReadOffset.from("0"), true));
+        } catch (Exception e) {
+            if (!containsBusyGroup(e)) {
+                throw e;
+            }
+            // 이미 그룹이 있음 → 정상
+        }
+        groupCreatedShards.add(shard);
+    }
+
+    private String checkpointId(String shard) {
+        return consumerName + "@" + shard;
+    }
+
+    private List<MapRecord<String, String, String>> read(String shard, ReadOffset offset) {
+        StreamOperations<String, String, String> ops = redisTemplate.opsForStream();
+        // StreamOffset<String>... 가변 인자의 제네릭 배열 생성 경고만 억제
+        @SuppressWarnings("unchecked")
+        List<MapRecord<String, String, String>> records = ops.read(
+            Consumer.from(GROUP, consumerName),
+            StreamReadOptions.empty().count(batchSize),
+            StreamOffset.create(shard, offset)
+        );
+        return records == null ? List.of() : records;
+    }
+
+    private void updateLag(Set<String> shards) {
+        StreamOperations<String, String, String> ops = redisTemplate.opsForStream();
+        long totalSize = 0;
+        Long oldestTimestamp = null;
+        for (String shard : shards) {
+            Long size = ops.size(shard);
+            if (size == null || size == 0) {
+                continue;
+            }
+            totalSize += size;
+            List<MapRecord<String, String, String>> oldest = ops.range(shard, Range.unbounded(), Limit.limit().count(1));
+            if (oldest != null && !oldest.isEmpty()) {
+                long timestamp = oldest.get(0).getId().getTimestamp();
+                oldestTimestamp = oldestTimestamp == null ? timestamp : Math.min(oldestTimestamp, timestamp);
+            }
+        }
+        lagEntries.set(totalSize);
+        lagSeconds.set(oldestTimestamp == null ? 0 : (System.currentTimeMillis() - oldestTimestamp) / 1000);
+    }
+
+    private static boolean containsBusyGroup(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause.getMessage() != null && cause.getMessage().contains("BUSYGROUP")) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,30 @@
+package com.exam.redis.writebehind;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * 컨슈머 + 스트림 샤드별로 DB에 마지막으로 반영한 스트림 엔트리 ID.
+ *
+ * 재고 UPDATE와 같은 트랜잭션에서 저장한다.
+ * DB 커밋 후 XACK 전에 죽으면 같은 엔트리가 재전달되는데,
+ * 이 체크포인트 이하의 엔트리는 건너뛰어 중복 차감을 막는다.
+ */
+@Entity
+@Getter
+@NoArgsConstructor
+public class WriteBehindCheckpoint {
+
+    // "{컨슈머 이름}@{스트림 키}" — 엔트리 ID는 스트림마다 따로 증가하므로 샤드별로 저장
+    @Id
+    private String checkpointId;
+
+    private String lastEntryId;
+
+    public WriteBehindCheckpoint(String checkpointId, String lastEntryId) {
+        this.checkpointId = checkpointId;
+        this.lastEntryId = lastEntryId;
+    }
+}
@@ -0,0 +1,6 @@
+package com.exam.redis.writebehind;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface WriteBehindCheckpointRepository extends JpaRepository<WriteBehindCheckpoint, String> {
+}
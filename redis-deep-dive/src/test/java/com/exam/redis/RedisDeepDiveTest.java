@@ -1,20 +1,38 @@
 package com.exam.redis;
 
+import com.exam.redis.lock.HeldLocksEndpoint;
 import com.exam.redis.service.HotDealService;
+import com.exam.redis.service.RankEntry;
+import com.exam.redis.service.RankingPage;
 import com.exam.redis.service.RankingService;
+import com.exam.redis.service.ShardedRankingService;
+import com.exam.redis.stock.LocalStockLeaseManager;
+import com.exam.redis.stock.ReactiveRedisStockCacheRepository;
 import com.exam.redis.stock.RedisStockCacheRepository;
+import com.exam.redis.stock.StockDecreaseResult;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import reactor.core.publisher.Flux;
 
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 @SpringBootTest
 class RedisDeepDiveTest {
@@ -25,9 +43,27 @@ class RedisDeepDiveTest {
     @Autowired
     private RankingService rankingService;
 
+    @Autowired
+    private ShardedRankingService shardedRankingService;
+
     @Autowired
     private RedisStockCacheRepository redisStockCacheRepository;
 
+    @Autowired
+    private ReactiveRedisStockCacheRepository reactiveRedisStockCacheRepository;
+
+    @Autowired
+    private LocalStockLeaseManager localStockLeaseManager;
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private HeldLocksEndpoint heldLocksEndpoint;
+
     @Test
     @DisplayName("분산 락: 동시에 5명이 구매를 시도해도 순차적으로 처리되어야 한다")
     void distributedLockTest() throws InterruptedException {
@@ -39,7 +75,7 @@ class RedisDeepDiveTest {
             String userId = "user-" + i;
             executorService.submit(() -> {
                 try {
-                    hotDealService.purchaseItem(userId);
+                    hotDealService.purchaseItem(1L, userId); // 모두 같은 상품
                 } finally {
                     latch.countDown();
                 }
@@ -51,6 +87,80 @@ class RedisDeepDiveTest {
         // 락이 없으면 "진입" 로그가 우르르 찍힘
     }
 
+    @Test
+    @DisplayName("분산 락: 서로 다른 상품을 구매하면 상품별 락이라 서로 기다리지 않아야 한다")
+    void distributedLockPerItemTest() throws InterruptedException {
+        int threadCount = 5;
+        ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch latch = new CountDownLatch(threadCount);
+
+        long start = System.currentTimeMillis();
+        for (int i = 0; i < threadCount; i++) {
+            long itemId = 100L + i; // 모두 다른 상품
+            executorService.submit(() -> {
+                try {
+                    hotDealService.purchaseItem(itemId, "user-" + itemId);
+                } finally {
+                    latch.countDown();
+                }
+            });
+        }
+        latch.await();
+        long elapsed = System.currentTimeMillis() - start;
+
+        // 하나의 전역 락이면 5초(1초 x 5), 상품별 락이면 약 1초
+        assertThat(elapsed).isLessThan(3000L);
+    }
+
+    @Test
+    @DisplayName("분산 락 메트릭: 대기/보유 시간이 키 패턴별로 기록되고, 보유 중인 락이 엔드포인트에 보여야 한다")
+    void distributedLockMetricsTest() throws Exception {
+        String pattern = "'hot-deal-item:' + #itemId";
+        long waitCountBefore = lockTimerCount("distributed.lock.wait", pattern);
+        long holdCountBefore = lockTimerCount("distributed.lock.hold", pattern);
+
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        CountDownLatch latch = new CountDownLatch(2);
+        for (int i = 0; i < 2; i++) {
+            String userId = "metrics-user-" + i;
+            executorService.submit(() -> {
+                try {
+                    hotDealService.purchaseItem(200L, userId); // 같은 상품 → 한 명은 약 1초 대기
+                } finally {
+                    latch.countDown();
+                }
+            });
+        }
+
+        // 구매 로직(1초) 도중에는 락 1개가 보유 중
+        Thread.sleep(500);
+        List<HeldLocksEndpoint.HeldLockView> held = heldLocksEndpoint.heldLocks();
+        assertThat(held).anySatisfy(lock -> {
+            assertThat(lock.keys()).containsExactly("hot-deal-item:200");
+            assertThat(lock.pattern()).isEqualTo(pattern);
+            // 기본 leaseTime 3초 중 0.5초만 보유
+            assertThat(lock.leaseMillis()).isEqualTo(3000L);
+            assertThat(lock.leaseExceeded()).isFalse();
+        });
+
+        latch.await();
+        assertThat(heldLocksEndpoint.heldLocks())
+            .noneMatch(lock -> lock.keys().contains("hot-deal-item:200"));
+        assertThat(lockTimerCount("distributed.lock.wait", pattern) - waitCountBefore).isEqualTo(2);
+        assertThat(lockTimerCount("distributed.lock.hold", pattern) - holdCountBefore).isEqualTo(2);
+
+        // 두 번째 구매자는 첫 번째가 끝날 때까지 기다렸어야 함
+        double maxWaitMillis = meterRegistry.get("distributed.lock.wait")
+            .tag("key", pattern).tag("result", "acquired")
+            .timer().max(TimeUnit.MILLISECONDS);
+        assertThat(maxWaitMillis).isGreaterThan(500);
+    }
+
+    private long lockTimerCount(String name, String pattern) {
+        Timer timer = meterRegistry.find(name).tag("key", pattern).timer();
+        return timer == null ? 0 : timer.count();
+    }
+
     @Test
     @DisplayName("Lua Script: 재고 10개에 20개 스레드가 동시 차감 시도 → 정확히 10개만 성공, 재고 0")
     void luaScriptStockDecreaseTest() throws InterruptedException {
@@ -83,6 +193,133 @@ class RedisDeepDiveTest {
         assertThat(finalStock).isEqualTo(0L);
     }
 
+    @Test
+    @DisplayName("Reactive Lua Script: 재고 10개에 20개 요청이 동시에 들어와도 정확히 10개만 성공한다")
+    void reactiveLuaScriptStockDecreaseTest() {
+        // Given
+        Long productId = 998L;
+        reactiveRedisStockCacheRepository.init(productId, 10, 60).block();
+
+        // When: 20개 요청을 동시에 구독 (스레드 블로킹 없이 flatMap으로 병렬 전송)
+        Long successCount = Flux.range(0, 20)
+                .flatMap(i -> reactiveRedisStockCacheRepository.decrease(productId, 1))
+                .filter(Boolean::booleanValue)
+                .count()
+                .block();
+
+        // Then
+        assertThat(successCount).isEqualTo(10L);
+        assertThat(reactiveRedisStockCacheRepository.getStock(productId).block()).isEqualTo(0L);
+    }
+
+    @Test
+    @DisplayName("Lua Script: 장바구니 차감은 한 상품이라도 부족하면 아무것도 차감하지 않는다 (all-or-nothing)")
+    void luaScriptDecreaseAllTest() {
+        // Given: 상품 A 재고 5개, 상품 B 재고 1개
+        redisStockCacheRepository.init(1001L, 5, 60);
+        redisStockCacheRepository.init(1002L, 1, 60);
+
+        // When: B를 2개 주문 → B 재고 부족
+        StockDecreaseResult failed = redisStockCacheRepository.decreaseAll(Map.of(1001L, 2, 1002L, 2));
+
+        // Then: 실패 + 부족한 상품은 B, A 재고는 그대로
+        assertThat(failed.success()).isFalse();
+        assertThat(failed.shortProductId()).isEqualTo(1002L);
+        assertThat(redisStockCacheRepository.getStock(1001L)).isEqualTo(5L);
+
+        // When: 재고 범위 안에서 주문
+        StockDecreaseResult succeeded = redisStockCacheRepository.decreaseAll(Map.of(1001L, 2, 1002L, 1));
+
+        // Then: 전부 차감
+        assertThat(succeeded.success()).isTrue();
+        assertThat(redisStockCacheRepository.getStock(1001L)).isEqualTo(3L);
+        assertThat(redisStockCacheRepository.getStock(1002L)).isEqualTo(0L);
+
+        // When: 0 이하 / null 수량 → 스크립트 실행 전에 거부 (음수 DECRBY로 재고가 늘지 않음)
+        Map<Long, Integer> nullQuantity = new HashMap<>();
+        nullQuantity.put(1001L, null);
+        assertThatThrownBy(() -> redisStockCacheRepository.decreaseAll(Map.of(1001L, 1, 1002L, -5)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> redisStockCacheRepository.decreaseAll(Map.of(1001L, 0)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> redisStockCacheRepository.decreaseAll(nullQuantity))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        // Then: 재고 변화 없음
+        assertThat(redisStockCacheRepository.getStock(1001L)).isEqualTo(3L);
+        assertThat(redisStockCacheRepository.getStock(1002L)).isEqualTo(0L);
+    }
+
+    @Test
+    @DisplayName("Lua Script 레지스트리: SCRIPT FLUSH로 캐시가 비어도 NOSCRIPT 재로드 후 정상 실행된다")
+    void luaScriptReloadOnNoScriptTest() {
+        // Given: 스크립트 캐시 비우기 (페일오버로 승격된 레플리카 상황 재현)
+        redisStockCacheRepository.init(3001L, 5, 60);
+        stringRedisTemplate.execute((RedisCallback<Void>) connection -> {
+            connection.scriptingCommands().scriptFlush();
+            return null;
+        });
+        double reloadsBefore = meterRegistry.counter("redis.script.reloads", "script", "stock.decrease").count();
+
+        // When
+        boolean success = redisStockCacheRepository.decrease(3001L, 1);
+
+        // Then: 재로드 1회 후 차감 성공
+        assertThat(success).isTrue();
+        assertThat(redisStockCacheRepository.getStock(3001L)).isEqualTo(4L);
+        assertThat(meterRegistry.counter("redis.script.reloads", "script", "stock.decrease").count())
+                .isEqualTo(reloadsBefore + 1);
+    }
+
+    @Test
+    @DisplayName("재고 임대: 로컬 차감도 Lua 요청당 차감과 같이 초과 판매 없이 정확히 재고만큼 판매되어야 한다")
+    void localStockLeaseNoOversellTest() throws InterruptedException {
+        int initialStock = 20_000;
+        int threadCount = 32;
+
+        // Given: 같은 재고를 가진 두 상품 (Lua 요청당 차감 vs 임대 로컬 차감)
+        redisStockCacheRepository.init(2001L, initialStock, 60);
+        redisStockCacheRepository.init(2002L, initialStock, 60);
+
+        // When
+        long luaElapsed = runDecreaseLoad(threadCount, initialStock, () -> redisStockCacheRepository.decrease(2001L, 1));
+        long leaseElapsed = runDecreaseLoad(threadCount, initialStock, () -> localStockLeaseManager.decrease(2002L, 1));
+        localStockLeaseManager.returnAll();
+
+        // Then: 두 방식 모두 정확히 initialStock개 판매, 잔여 0
+        assertThat(redisStockCacheRepository.getStock(2001L)).isEqualTo(0L);
+        assertThat(redisStockCacheRepository.getStock(2002L)).isEqualTo(0L);
+
+        // 처리량은 참고용 출력 (벽시계 시간은 CI 환경에 따라 흔들리므로 검증하지 않음)
+        System.out.printf("Lua 요청당 차감: %d ops/s, 임대 로컬 차감: %d ops/s%n",
+                initialStock * 1000L / Math.max(luaElapsed, 1),
+                initialStock * 1000L / Math.max(leaseElapsed, 1));
+    }
+
+    // initialStock만큼 1개씩 차감 요청을 threadCount개 스레드로 나눠 실행, 소요 시간(ms) 반환
+    private long runDecreaseLoad(int threadCount, int requests, BooleanSupplier decrease) throws InterruptedException {
+        ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch latch = new CountDownLatch(requests);
+        AtomicInteger successCount = new AtomicInteger();
+
+        long start = System.currentTimeMillis();
+        for (int i = 0; i < requests; i++) {
+            executorService.submit(() -> {
+                try {
+                    if (decrease.getAsBoolean()) successCount.incrementAndGet();
+                } finally {
+                    latch.countDown();
+                }
+            });
+        }
+        latch.await();
+        long elapsed = System.currentTimeMillis() - start;
+        executorService.shutdown();
+
+        assertThat(successCount.get()).isEqualTo(requests);
+        return elapsed;
+    }
+
     @Test
     @DisplayName("랭킹: 점수가 높은 순서대로 조회되어야 한다")
     void rankingTest() {
@@ -100,4 +337,114 @@ class RedisDeepDiveTest {
         Long rankB = rankingService.getUserRank("userB");
         assertThat(rankB).isEqualTo(0); // 0등 (1위)
     }
+
+    @Test
+    @DisplayName("랭킹 Near Cache: 반복 조회는 로컬 캐시에서 응답하고, 상위권 점수 변경 시 즉시 무효화된다")
+    void leaderboardNearCacheTest() {
+        // Given: 이전 실행 데이터보다 항상 높은 점수
+        double base = System.currentTimeMillis();
+        rankingService.addScore("near-cache-A", base);
+        rankingService.getTopRank(1); // 캐시 로드
+
+        // When: 반복 조회
+        double hitsBefore = meterRegistry.counter("ranking.near-cache.hits").count();
+        Set<String> cached = rankingService.getTopRank(1);
+
+        // Then: 캐시 Hit
+        assertThat(cached).containsExactly("near-cache-A");
+        assertThat(meterRegistry.counter("ranking.near-cache.hits").count()).isEqualTo(hitsBefore + 1);
+
+        // When: 커트라인 이상의 점수 추가 → 무효화
+        rankingService.addScore("near-cache-B", base + 1);
+
+        // Then: 다음 조회는 새 1위
+        assertThat(rankingService.getTopRank(1)).containsExactly("near-cache-B");
+
+        // 다른 랭킹 테스트에 영향 없도록 정리
+        stringRedisTemplate.opsForZSet().remove("game:leaderboard", "near-cache-A", "near-cache-B");
+    }
+
+    @Test
+    @DisplayName("벌크 랭킹 적재: 멀티 멤버 ZADD + 파이프라인으로 넣은 점수와 벌크 ZINCRBY 결과가 모두 정확해야 한다")
+    void bulkScoreIngestionTest() {
+        int updates = 100_000; // LEARN.md 표와 같은 10만 건 규모
+        Map<String, Double> scores = new HashMap<>();
+        for (int i = 0; i < updates; i++) {
+            scores.put("bulk-user-" + i, -1.0 - i); // 음수 점수 → 다른 랭킹 테스트의 상위권에 끼지 않음
+        }
+
+        // 비교 기준: Near Cache 무효화(PUBLISH) 없이 순수 단건 ZADD만 (별도 키)
+        String baselineKey = "game:leaderboard:baseline";
+        long start = System.currentTimeMillis();
+        scores.forEach((userId, score) -> stringRedisTemplate.opsForZSet().add(baselineKey, userId, score));
+        long singleElapsed = System.currentTimeMillis() - start;
+        stringRedisTemplate.delete(baselineKey);
+
+        // When: 벌크 ZADD (멀티 멤버 + 파이프라인)
+        start = System.currentTimeMillis();
+        rankingService.addScores(scores);
+        long bulkElapsed = System.currentTimeMillis() - start;
+
+        // When: 벌크 ZINCRBY
+        Map<String, Double> updated = rankingService.incrementScores(Map.of("bulk-user-0", -10.0, "bulk-user-1", -10.0));
+
+        // Then: 모든 멤버가 정확한 점수로 적재됨
+        assertThat(stringRedisTemplate.opsForZSet().count("game:leaderboard", -updates, -1.0)).isEqualTo((long) updates);
+        assertThat(stringRedisTemplate.opsForZSet().score("game:leaderboard", "bulk-user-" + (updates - 1)))
+            .isEqualTo((double) -updates);
+        assertThat(updated).containsEntry("bulk-user-0", -11.0).containsEntry("bulk-user-1", -12.0);
+        // 처리량은 환경에 따라 흔들리므로 참고용 출력만
+        System.out.printf("단건 ZADD: %d ops/s, 벌크 ZADD: %d ops/s%n",
+                updates * 1000L / Math.max(singleElapsed, 1),
+                updates * 1000L / Math.max(bulkElapsed, 1));
+
+        // 정리
+        stringRedisTemplate.opsForZSet().removeRangeByScore("game:leaderboard", Double.NEGATIVE_INFINITY, -1.0);
+    }
+
+    @Test
+    @DisplayName("샤딩 랭킹: 여러 ZSet에 분산돼도 병합 결과는 단일 ZSet과 같은 순서여야 한다")
+    void shardedRankingTest() {
+        // Given: 10명 (user-0: 0점 ... user-9: 900점) → 샤드에 분산
+        for (int i = 0; i < 10; i++) {
+            shardedRankingService.addScore("sharded-user-" + i, i * 100);
+        }
+
+        // When & Then: 상위 3명
+        assertThat(shardedRankingService.getTopRank(3))
+                .extracting(RankEntry::userId)
+                .containsExactly("sharded-user-9", "sharded-user-8", "sharded-user-7");
+        assertThat(shardedRankingService.getUserRank("sharded-user-9")).isEqualTo(0L);
+
+        // 주변 랭킹: user-5(4위, 0-based) 위아래 2명씩
+        List<RankEntry> around = shardedRankingService.getAroundUser("sharded-user-5", 2);
+        assertThat(around).extracting(RankEntry::userId)
+                .containsExactly("sharded-user-7", "sharded-user-6", "sharded-user-5", "sharded-user-4", "sharded-user-3");
+        assertThat(around.get(2).rank()).isEqualTo(4L);
+
+        // 커서 페이지: 4명씩 → 4, 4, 2명
+        RankingPage first = shardedRankingService.getPage(null, 4);
+        RankingPage second = shardedRankingService.getPage(first.nextCursor(), 4);
+        RankingPage third = shardedRankingService.getPage(second.nextCursor(), 4);
+        assertThat(second.entries()).extracting(RankEntry::userId)
+                .containsExactly("sharded-user-5", "sharded-user-4", "sharded-user-3", "sharded-user-2");
+        assertThat(second.entries().get(0).rank()).isEqualTo(4L);
+        assertThat(third.entries()).hasSize(2);
+        assertThat(third.nextCursor()).isNull();
+
+        // 동점자: 50점 5명 (user-1(100점)과 user-0(0점) 사이) → userId 내림차순으로 9~13위
+        for (String suffix : List.of("a", "b", "c", "d", "e")) {
+            shardedRankingService.addScore("sharded-tie-" + suffix, 50);
+        }
+        assertThat(shardedRankingService.getUserRank("sharded-tie-c")).isEqualTo(11L);
+        List<RankEntry> aroundTie = shardedRankingService.getAroundUser("sharded-tie-c", 3);
+        assertThat(aroundTie).extracting(RankEntry::userId)
+                .containsExactly("sharded-user-1", "sharded-tie-e", "sharded-tie-d", "sharded-tie-c",
+                        "sharded-tie-b", "sharded-tie-a", "sharded-user-0");
+        assertThat(aroundTie.get(0).rank()).isEqualTo(8L);
+        RankingPage afterTie = shardedRankingService.getPage("10:50.0:sharded-tie-d", 2);
+        assertThat(afterTie.entries()).extracting(RankEntry::userId)
+                .containsExactly("sharded-tie-c", "sharded-tie-b");
+        assertThat(afterTie.entries().get(0).rank()).isEqualTo(11L);
+    }
 }
@@ -0,0 +1,83 @@
+package com.exam.redis;
+
+import com.exam.redis.stock.LocalStockLeaseManager;
+import com.exam.redis.stock.ReactiveRedisStockCacheRepository;
+import com.exam.redis.stock.RedisStockCacheRepository;
+import com.exam.redis.writebehind.Stock;
+import com.exam.redis.writebehind.StockRepository;
+import com.exam.redis.writebehind.StockWriteBehindConsumer;
+import io.lettuce.core.cluster.SlotHash;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.connection.stream.PendingMessagesSummary;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 모든 차감 경로가 스트림에 이벤트를 기록하도록 활성화 (DB는 H2)
+// RedisDeepDiveTest와 컨텍스트를 분리 → 다른 테스트는 Write-Behind 없이 실행됨
+@SpringBootTest(properties = "stock.write-behind.enabled=true")
+class StockWriteBehindTest {
+
+    @Autowired
+    private RedisStockCacheRepository redisStockCacheRepository;
+
+    @Autowired
+    private ReactiveRedisStockCacheRepository reactiveRedisStockCacheRepository;
+
+    @Autowired
+    private LocalStockLeaseManager localStockLeaseManager;
+
+    @Autowired
+    private StockWriteBehindConsumer stockWriteBehindConsumer;
+
+    @Autowired
+    private StockRepository stockRepository;
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Test
+    @DisplayName("Write-Behind: 단건/장바구니/Reactive/임대 차감이 모두 스트림을 거쳐 DB 재고에 반영되고, 반영된 엔트리는 ACK되어야 한다")
+    void writeBehindTest() {
+        Long productId = 7001L;
+        stockRepository.save(new Stock(productId, 100L));
+        redisStockCacheRepository.init(productId, 100, 60);
+
+        // When: 모든 차감 경로
+        assertThat(redisStockCacheRepository.decrease(productId, 3)).isTrue();
+        assertThat(redisStockCacheRepository.decreaseAll(Map.of(productId, 2)).success()).isTrue();
+        assertThat(reactiveRedisStockCacheRepository.decrease(productId, 1).block()).isTrue();
+        assertThat(localStockLeaseManager.decrease(productId, 1)).isTrue(); // 남은 94개 임대 → 로컬에서 1개 차감
+        localStockLeaseManager.returnAll(); // 남은 93개 반납 (음수 이벤트)
+
+        // When: 이 상품의 스트림 샤드가 빌 때까지 flush
+        String stream = RedisStockCacheRepository.decrementStreamKey(productId);
+        assertThat(stringRedisTemplate.opsForSet().isMember(RedisStockCacheRepository.DECREMENT_STREAM_SHARDS_KEY, stream)).isTrue();
+        for (int i = 0; i < 20 && stringRedisTemplate.opsForStream().size(stream) > 0; i++) {
+            stockWriteBehindConsumer.flush();
+        }
+
+        // Then: DB 재고 = Redis 재고 = 100 - 3 - 2 - 1 - 1
+        assertThat(redisStockCacheRepository.getStock(productId)).isEqualTo(93L);
+        assertThat(stockRepository.findByProductId(productId).orElseThrow().getQuantity()).isEqualTo(93L);
+
+        // Then: 반영된 엔트리는 XACK + XDEL → PEL과 스트림 모두 비어 있음
+        PendingMessagesSummary pending = stringRedisTemplate.opsForStream().pending(stream, "stock-writer");
+        assertThat(pending.getTotalPendingMessages()).isZero();
+        assertThat(stringRedisTemplate.opsForStream().size(stream)).isZero();
+    }
+
+    @Test
+    @DisplayName("Write-Behind: 상품별 스트림은 재고 키와 같은 해시 슬롯이어야 한다 (Cluster에서 차감 + XADD를 한 스크립트로)")
+    void decrementStreamSlotTest() {
+        for (long productId = 1; productId <= 1000; productId++) {
+            assertThat(SlotHash.getSlot(RedisStockCacheRepository.decrementStreamKey(productId)))
+                    .isEqualTo(SlotHash.getSlot("product:stock:" + productId));
+        }
+    }
+}